@@ -0,0 +1,139 @@
+/*
+ * File: AnchorChain
+ * Created On: 18-10-2026
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Approximate word-level longest common subsequence by seed and chain, for documents too long for the exact
+ * algorithms.
+ * <p>
+ * Anchors are the exact k word matches: every k-gram of the second document goes into a hash index, every k-gram
+ * of the first document looks itself up, and hits are checked word by word. A chain is a sequence of anchors
+ * that do not overlap and keep their order in both documents, i.e. each one starts at least k words after the
+ * previous one on both sides. The longest chain is found by a sweep over the first document with a Fenwick tree
+ * of the best chain ending before each offset of the second document, in O(a log m) for a anchors. The words of
+ * the chained anchors are a common subsequence of length C = k * (chain length).
+ * <p>
+ * Error bounds: C never exceeds the LCS, because the chain is a common subsequence. Conversely, take an optimal
+ * alignment and split it into its R maximal runs of consecutive words on the same diagonal, of lengths L1..LR.
+ * Run i holds floor(Li / k) disjoint anchors in order, so the longest chain covers at least
+ * k * sum(floor(Li / k)) words, which gives LCS - (k - 1) * R <= C <= LCS. Runs shorter than k are lost
+ * entirely and longer runs lose less than k words each, so text copied in long passages is measured closely,
+ * while scattered single word matches are not counted at all.
+ */
+final class AnchorChain {
+
+    // Multiplier of the polynomial k-gram hash
+    private static final long BASE = 0x9E3779B97F4A7C15L;
+
+    // Words per anchor
+    private final int k;
+
+    /**
+     * @param k {@link Integer} words per anchor, at least 1
+     */
+    AnchorChain(int k) {
+        this.k = k;
+    }
+
+    /**
+     * Chain the anchors of two documents
+     *
+     * @param first  {@link Integer[]} interned words of the first document
+     * @param second {@link Integer[]} interned words of the second document
+     * @return {@link Integer[]} ids of the chained common subsequence, last word first (same order as the
+     * {@link LcsEngine} backtrack)
+     */
+    int[] chain(int[] first, int[] second) {
+        if (first.length < k || second.length < k) {
+            return new int[0];
+        }
+        long power = 1;
+        for (int i = 0; i < k; i++) {
+            power *= BASE;
+        }
+        long[] firstPrefix = prefixHashes(first);
+        long[] secondPrefix = prefixHashes(second);
+        Map<Long, List<Integer>> grams = new HashMap<>();
+        for (int q = 0; q + k <= second.length; q++) {
+            grams.computeIfAbsent(secondPrefix[q + k] - secondPrefix[q] * power, h -> new ArrayList<>()).add(q);
+        }
+
+        // anchors in ascending first offset, as (first offset << 32) | second offset
+        long[] anchors = new long[16];
+        int count = 0;
+        for (int p = 0; p + k <= first.length; p++) {
+            List<Integer> hits = grams.get(firstPrefix[p + k] - firstPrefix[p] * power);
+            if (hits == null) {
+                continue;
+            }
+            for (int q : hits) {
+                if (Arrays.equals(first, p, p + k, second, q, q + k)) {
+                    if (count == anchors.length) {
+                        anchors = Arrays.copyOf(anchors, count * 2);
+                    }
+                    anchors[count++] = (long) p << 32 | q;
+                }
+            }
+        }
+
+        // best[a] = anchors in the longest chain ending with anchor a, previous[a] = the anchor before it
+        int[] best = new int[count];
+        int[] previous = new int[count];
+        // Fenwick tree over second offsets of (chain length << 32 | anchor + 1), maxima of prefixes
+        long[] tree = new long[second.length + 1];
+        int inserted = 0;
+        int last = -1;
+        for (int a = 0; a < count; a++) {
+            int p = (int) (anchors[a] >>> 32);
+            int q = (int) anchors[a];
+            // anchors ending at or before p may precede this one
+            while (inserted < a && (int) (anchors[inserted] >>> 32) + k <= p) {
+                long entry = (long) best[inserted] << 32 | (inserted + 1);
+                for (int x = (int) anchors[inserted] + 1; x < tree.length; x += x & -x) {
+                    tree[x] = Math.max(tree[x], entry);
+                }
+                inserted++;
+            }
+            long before = 0;
+            for (int x = q - k + 1; x > 0; x -= x & -x) {
+                before = Math.max(before, tree[x]);
+            }
+            best[a] = (int) (before >>> 32) + 1;
+            previous[a] = (int) before - 1;
+            if (last < 0 || best[a] > best[last]) {
+                last = a;
+            }
+        }
+
+        int[] subsequence = new int[last < 0 ? 0 : best[last] * k];
+        int found = 0;
+        for (int a = last; a >= 0; a = previous[a]) {
+            int p = (int) (anchors[a] >>> 32);
+            for (int w = p + k - 1; w >= p; w--) {
+                subsequence[found++] = first[w];
+            }
+        }
+        return subsequence;
+    }
+
+    /**
+     * Polynomial prefix hashes, so any k-gram hash is one subtraction and one multiplication
+     *
+     * @param tokens {@link Integer[]} words of a document
+     * @return {@link Long[]} hash of every prefix, tokens.length + 1 values
+     */
+    private static long[] prefixHashes(int[] tokens) {
+        long[] prefix = new long[tokens.length + 1];
+        for (int i = 0; i < tokens.length; i++) {
+            prefix[i + 1] = prefix[i] * BASE + TokenDictionary.mix64(tokens[i]);
+        }
+        return prefix;
+    }
+}
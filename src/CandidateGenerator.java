@@ -0,0 +1,102 @@
+/*
+ * File: CandidateGenerator
+ * Created On: 18-10-2026
+ */
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A stage that picks the document pairs worth the detailed comparison, so the pair loop does not have to visit
+ * all N * (N - 1) / 2 pairs. Pairs are packed into a {@code long} as (i << 32) | j with i < j, indices into the
+ * document list.
+ */
+interface CandidateGenerator {
+
+    /**
+     * Pick the candidate pairs of a document set
+     *
+     * @param documents {@link List<Document>} documents of the run
+     * @return {@link Long[]} packed candidate pairs, sorted ascending and without duplicates
+     */
+    long[] candidates(List<Document> documents);
+
+    /**
+     * @return {@link String} summary of the last {@link #candidates(List)} call
+     */
+    String report();
+
+    /**
+     * Pack a pair of document indices
+     *
+     * @param i {@link Integer} one document index
+     * @param j {@link Integer} another document index
+     * @return {@link Long} packed pair with the smaller index first
+     */
+    static long pair(int i, int j) {
+        return i < j ? ((long) i << 32) | j : ((long) j << 32) | i;
+    }
+
+    /**
+     * @param pair {@link Long} packed pair
+     * @return {@link Integer} smaller document index of the pair
+     */
+    static int first(long pair) {
+        return (int) (pair >>> 32);
+    }
+
+    /**
+     * @param pair {@link Long} packed pair
+     * @return {@link Integer} larger document index of the pair
+     */
+    static int second(long pair) {
+        return (int) pair;
+    }
+
+    /**
+     * Growable list of packed pairs
+     */
+    final class PairList {
+        private long[] pairs = new long[64];
+        private int size;
+
+        /**
+         * @param i {@link Integer} one document index
+         * @param j {@link Integer} another document index, different from i
+         */
+        void add(int i, int j) {
+            if (size == pairs.length) {
+                pairs = Arrays.copyOf(pairs, size * 2);
+            }
+            pairs[size++] = pair(i, j);
+        }
+
+        /**
+         * @return {@link Long[]} the pairs sorted ascending, duplicates removed
+         */
+        long[] toSortedArray() {
+            return toSortedArray(1);
+        }
+
+        /**
+         * @param minOccurrences {@link Integer} times a pair must have been added to be kept
+         * @return {@link Long[]} the pairs added at least minOccurrences times, sorted ascending, without duplicates
+         */
+        long[] toSortedArray(int minOccurrences) {
+            long[] sorted = Arrays.copyOf(pairs, size);
+            Arrays.sort(sorted);
+            int unique = 0;
+            for (int k = 0; k < sorted.length; ) {
+                int run = k;
+                while (run < sorted.length && sorted[run] == sorted[k]) {
+                    run++;
+                }
+                if (run - k >= minOccurrences) {
+                    sorted[unique++] = sorted[k];
+                }
+                k = run;
+            }
+            return Arrays.copyOf(sorted, unique);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * File: ComparisonResult
+ * Created On: 18-10-2026
+ */
+
+import java.util.List;
+
+/**
+ * Outcome of comparing one document pair, kept separate from printing so pairs can be compared in any order and
+ * reported in a fixed one
+ *
+ * @param firstName  {@link String} file of the first document, null if nothing was detected
+ * @param secondName {@link String} file of the second document, null if nothing was detected
+ * @param similarity      {@link Double} edit distance similarity (0 to 1), not computed for a near duplicate
+ * @param sequence        {@link List<String>} longest similar word sequence in reading order, empty if a near
+ *                        duplicate was flagged without evidence
+ * @param passages        {@link List<Passage>} contiguous passages both documents share, empty if not computed
+ * @param simHashDistance {@link Integer} SimHash distance of a pair flagged as near duplicate, -1 for a pair
+ *                        compared in detail
+ */
+record ComparisonResult(String firstName,
+                        String secondName,
+                        double similarity,
+                        List<String> sequence,
+                        List<Passage> passages,
+                        int simHashDistance) {
+
+    // Shared result of every pair without plagiarism
+    private static final ComparisonResult NOT_DETECTED = new ComparisonResult(null, null, 0, List.of());
+
+    /**
+     * Result without passages
+     *
+     * @param firstName  {@link String} file of the first document
+     * @param secondName {@link String} file of the second document
+     * @param similarity {@link Double} edit distance similarity (0 to 1)
+     * @param sequence   {@link List<String>} longest similar word sequence in reading order
+     */
+    ComparisonResult(String firstName, String secondName, double similarity, List<String> sequence) {
+        this(firstName, secondName, similarity, sequence, List.of(), -1);
+    }
+
+    /**
+     * Result of a pair flagged by its SimHash signatures, skipping the edit distance
+     *
+     * @param firstName  {@link String} file of the first document
+     * @param secondName {@link String} file of the second document
+     * @param distance   {@link Integer} number of differing signature bits
+     * @param sequence   {@link List<String>} longest similar word sequence if evidence was asked for, else empty
+     * @return {@link ComparisonResult} the near duplicate result
+     */
+    static ComparisonResult nearDuplicate(String firstName, String secondName, int distance, List<String> sequence) {
+        return new ComparisonResult(firstName, secondName, Double.NaN, sequence, List.of(), distance);
+    }
+
+    /**
+     * @return {@link ComparisonResult} the result of a pair without plagiarism
+     */
+    static ComparisonResult notDetected() {
+        return NOT_DETECTED;
+    }
+
+    /**
+     * @param matches {@link List<Passage>} passages both documents share
+     * @return {@link ComparisonResult} this result with the passages attached
+     */
+    ComparisonResult withPassages(List<Passage> matches) {
+        return new ComparisonResult(firstName, secondName, similarity, sequence, List.copyOf(matches), simHashDistance);
+    }
+
+    /**
+     * @return {@link Boolean} true if the pair is reported as potential plagiarism
+     */
+    boolean detected() {
+        return firstName != null;
+    }
+
+    /**
+     * @return {@link Boolean} true if the pair was flagged by SimHash instead of compared in detail
+     */
+    boolean nearDuplicate() {
+        return simHashDistance >= 0;
+    }
+
+    /**
+     * Text printed for this pair
+     *
+     * @return {@link String} report lines, each ending with a line separator
+     */
+    String report() {
+        if (!detected()) {
+            return "No Plagiarism Detected." + System.lineSeparator();
+        }
+        StringBuilder report = new StringBuilder();
+        if (nearDuplicate()) {
+            report.append(String.format("Potential plagiarism detected between %s and %s \nNear duplicate: SimHash "
+                                        + "signatures differ in %d of %d bits %n",
+                                        firstName,
+                                        secondName,
+                                        simHashDistance,
+                                        SimHashIndex.BITS));
+        } else {
+            report.append(String.format("Potential plagiarism detected between %s and %s \nSimilarity: %.2f%% %n",
+                                        firstName,
+                                        secondName,
+                                        similarity * 100));
+        }
+        if (!nearDuplicate() || !sequence.isEmpty()) {
+            report.append("Similar sequence(s):").append(System.lineSeparator())
+                  .append("- ").append(String.join(" ", sequence)).append(System.lineSeparator());
+        }
+        if (!passages.isEmpty()) {
+            report.append("Matching passage(s):").append(System.lineSeparator());
+            for (Passage passage : passages) {
+                report.append(String.format("- words %d-%d of %s, words %d-%d of %s%n",
+                                            passage.firstStart() + 1,
+                                            passage.firstEnd(),
+                                            firstName,
+                                            passage.secondStart() + 1,
+                                            passage.secondEnd(),
+                                            secondName));
+            }
+        }
+        return report.toString();
+    }
+}
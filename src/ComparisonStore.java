@@ -0,0 +1,377 @@
+/*
+ * File: ComparisonStore
+ * Created On: 18-10-2026
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Results of the documents compared so far, kept in a state file between runs so a run only compares the pairs it
+ * has not seen: new documents against the existing ones and against each other.
+ * <p>
+ * A document is identified by its file name together with a hash of its preprocessed words, so a file whose
+ * content changed counts as a new document. The state holds the keys of the known documents, every pair of which
+ * has been settled, and the results of the detected pairs among them. A pair of two known documents without a
+ * stored result was not detected. The state and the work of a run therefore grow with the number of documents and
+ * detections, not with the number of pairs: a batch of new documents costs new x all pairs.
+ * <p>
+ * Results are only valid for the options that produced them, so the state carries a fingerprint of those options
+ * and is discarded as a whole when a run uses different ones. Documents that are not part of the run, such as an
+ * earlier version of an edited file, are dropped with their pairs when the state is saved.
+ * <p>
+ * The state file is a {@link DataOutputStream} stream: magic, version, options fingerprint, the count and keys of
+ * the known documents, then the count of detected pairs and per pair both document keys and the fields of the
+ * {@link ComparisonResult}. It is written to a temporary file first and moved into place, so an interrupted run
+ * leaves the previous state intact.
+ */
+final class ComparisonStore {
+
+    // "PDST" in ASCII
+    private static final int MAGIC = 0x50445354;
+    private static final int VERSION = 3;
+
+    /**
+     * Unordered pair of document keys, the smaller key first
+     *
+     * @param low  {@link Long} smaller document key
+     * @param high {@link Long} larger document key
+     */
+    private record PairKey(long low, long high) {
+
+        static PairKey of(long first, long second) {
+            return first <= second ? new PairKey(first, second) : new PairKey(second, first);
+        }
+    }
+
+    // Fingerprint of the options the results were computed with
+    private final long optionsFingerprint;
+    // Key of every document whose pairs with the other known documents are settled
+    private final Set<Long> known;
+    // Result of every detected pair of known documents
+    private final Map<PairKey, ComparisonResult> detected;
+
+    // Pairs of the current run answered from the store: by packed pair the detected results, the pairs whose
+    // stored result has the documents the other way round and is recomputed, and the index of the known documents
+    private final Map<Long, ComparisonResult> stored = new HashMap<>();
+    private final Set<Long> recomputed = new HashSet<>();
+    private int[] knownDocuments = new int[0];
+    // Reused candidate pairs, sorted, or null if every pair of two known documents is reused
+    private long[] reusedPairs;
+    // Position of the next reused pair to hand out: in reusedPairs, or as row and column in knownDocuments
+    private int handedOut;
+    private int row;
+    private int column = 1;
+
+    // Statistics of the current run
+    private long reused;
+    private long compared;
+    private long discarded;
+    private long dropped;
+
+    private ComparisonStore(long optionsFingerprint,
+                            Set<Long> known,
+                            Map<PairKey, ComparisonResult> detected,
+                            long discarded) {
+        this.optionsFingerprint = optionsFingerprint;
+        this.known = known;
+        this.detected = detected;
+        this.discarded = discarded;
+    }
+
+    /**
+     * Read a state file
+     *
+     * @param path               {@link Path} state file
+     * @param optionsFingerprint {@link Long} fingerprint of the options that decide which pairs are compared and
+     *                           what a result contains
+     * @return {@link ComparisonStore} the stored results, empty if the file does not exist yet or was written with
+     * other options
+     * @throws IOException if the file cannot be read or is not a state file
+     */
+    static ComparisonStore load(Path path, long optionsFingerprint) throws IOException {
+        Set<Long> known = new HashSet<>();
+        Map<PairKey, ComparisonResult> detected = new HashMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a comparison state file: " + path);
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported comparison state version " + version + ": " + path);
+            }
+            long fingerprint = in.readLong();
+            int documents = in.readInt();
+            if (fingerprint != optionsFingerprint) {
+                // computed with other options, none of the results can be reused
+                return new ComparisonStore(optionsFingerprint, known, detected, documents);
+            }
+            for (int d = 0; d < documents; d++) {
+                known.add(in.readLong());
+            }
+            int count = in.readInt();
+            for (int p = 0; p < count; p++) {
+                PairKey key = new PairKey(in.readLong(), in.readLong());
+                detected.put(key, readResult(in));
+            }
+        } catch (NoSuchFileException e) {
+            // first incremental run
+        }
+        return new ComparisonStore(optionsFingerprint, known, detected, 0);
+    }
+
+    /**
+     * Write the known documents and their detected pairs, replacing the state file. Every document of the run is
+     * known afterwards; documents of earlier runs that are not part of this one are dropped
+     *
+     * @param path {@link Path} state file
+     * @param keys {@link Long[]} document key of every document of the run, whose pairs are all settled
+     * @throws IOException if the file cannot be written
+     */
+    void save(Path path, long[] keys) throws IOException {
+        Set<Long> current = new HashSet<>();
+        for (long key : keys) {
+            current.add(key);
+        }
+        int before = known.size();
+        known.retainAll(current);
+        dropped += before - known.size();
+        detected.keySet().removeIf(key -> !current.contains(key.low()) || !current.contains(key.high()));
+        known.addAll(current);
+
+        Path absolute = path.toAbsolutePath();
+        Path temporary = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(optionsFingerprint);
+                out.writeInt(known.size());
+                for (long key : known) {
+                    out.writeLong(key);
+                }
+                out.writeInt(detected.size());
+                for (Map.Entry<PairKey, ComparisonResult> entry : detected.entrySet()) {
+                    out.writeLong(entry.getKey().low());
+                    out.writeLong(entry.getKey().high());
+                    writeResult(out, entry.getValue());
+                }
+            }
+            Files.move(temporary, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Key identifying a document across runs: its name and the stable hashes of its preprocessed words
+     *
+     * @param document   {@link Document} the document
+     * @param dictionary {@link TokenDictionary} dictionary the document tokens come from
+     * @return {@link Long} document key
+     */
+    static long documentKey(Document document, TokenDictionary dictionary) {
+        long key = TokenDictionary.fingerprint(document.name());
+        for (int token : document.tokens()) {
+            key = TokenDictionary.mix64(key * 0x9E3779B97F4A7C15L + dictionary.tokenHash(token));
+        }
+        return key;
+    }
+
+    /**
+     * Pairs of the run that are not settled by the store: those with a new document, and detected pairs stored
+     * with the documents the other way round, because their sequence and passages depend on the order. The
+     * others are remembered, so their results can be printed in pair order by {@link #reusedBefore(long)}
+     *
+     * @param documents  {@link List<Document>} documents of the run
+     * @param keys       {@link Long[]} document key of every document of the run
+     * @param candidates {@link Long[]} packed candidate pairs, null for every pair i < j
+     * @return {@link Long[]} packed pairs still to compare, sorted
+     */
+    long[] pending(List<Document> documents, long[] keys, long[] candidates) {
+        int n = keys.length;
+        Map<Long, Integer> positions = new HashMap<>();
+        boolean[] isKnown = new boolean[n];
+        int knownCount = 0;
+        for (int d = 0; d < n; d++) {
+            positions.put(keys[d], d);
+            isKnown[d] = known.contains(keys[d]);
+            knownCount += isKnown[d] ? 1 : 0;
+        }
+        for (Map.Entry<PairKey, ComparisonResult> entry : detected.entrySet()) {
+            Integer low = positions.get(entry.getKey().low());
+            Integer high = positions.get(entry.getKey().high());
+            if (low == null || high == null) {
+                continue;
+            }
+            int i = Math.min(low, high);
+            long pair = CandidateGenerator.pair(low, high);
+            if (entry.getValue().firstName().equals(documents.get(i).name())) {
+                stored.put(pair, entry.getValue());
+            } else {
+                recomputed.add(pair);
+            }
+        }
+
+        CandidateGenerator.PairList pairs = new CandidateGenerator.PairList();
+        if (candidates != null) {
+            CandidateGenerator.PairList settled = new CandidateGenerator.PairList();
+            for (long pair : candidates) {
+                int i = CandidateGenerator.first(pair);
+                int j = CandidateGenerator.second(pair);
+                if (isKnown[i] && isKnown[j] && !recomputed.contains(pair)) {
+                    settled.add(i, j);
+                } else {
+                    pairs.add(i, j);
+                }
+            }
+            reusedPairs = settled.toSortedArray();
+            reused = reusedPairs.length;
+        } else {
+            // new x all, the pairs of two new documents are added twice and merged by the sort
+            knownDocuments = new int[knownCount];
+            for (int d = 0, k = 0; d < n; d++) {
+                if (isKnown[d]) {
+                    knownDocuments[k++] = d;
+                    continue;
+                }
+                for (int e = 0; e < n; e++) {
+                    if (e != d) {
+                        pairs.add(d, e);
+                    }
+                }
+            }
+            for (long pair : recomputed) {
+                pairs.add(CandidateGenerator.first(pair), CandidateGenerator.second(pair));
+            }
+            reused = (long) knownCount * (knownCount - 1) / 2 - recomputed.size();
+        }
+        return pairs.toSortedArray();
+    }
+
+    /**
+     * Results of the reused pairs that come before a pair, each handed out once
+     *
+     * @param pair {@link Long} packed pair about to be printed, {@link Long#MAX_VALUE} for all remaining
+     * @return {@link List<ComparisonResult>} the results, in pair order
+     */
+    List<ComparisonResult> reusedBefore(long pair) {
+        List<ComparisonResult> before = new ArrayList<>();
+        if (reusedPairs != null) {
+            while (handedOut < reusedPairs.length && reusedPairs[handedOut] < pair) {
+                before.add(stored.getOrDefault(reusedPairs[handedOut++], ComparisonResult.notDetected()));
+            }
+            return before;
+        }
+        // every pair of two known documents, walking only the known documents
+        while (row < knownDocuments.length - 1) {
+            long next = CandidateGenerator.pair(knownDocuments[row], knownDocuments[column]);
+            if (next >= pair) {
+                break;
+            }
+            if (!recomputed.contains(next)) {
+                before.add(stored.getOrDefault(next, ComparisonResult.notDetected()));
+            }
+            if (++column == knownDocuments.length) {
+                row++;
+                column = row + 1;
+            }
+        }
+        return before;
+    }
+
+    /**
+     * Record the result of a pair compared in this run
+     *
+     * @param firstKey  {@link Long} key of the first document
+     * @param secondKey {@link Long} key of the second document
+     * @param result    {@link ComparisonResult} outcome of the pair
+     */
+    void put(long firstKey, long secondKey, ComparisonResult result) {
+        compared++;
+        if (result.detected()) {
+            detected.put(PairKey.of(firstKey, secondKey), result);
+        } else {
+            detected.remove(PairKey.of(firstKey, secondKey));
+        }
+    }
+
+    /**
+     * Summary of the current run
+     *
+     * @param path {@link Path} state file
+     * @return {@link String} human readable statistics
+     */
+    String report(Path path) {
+        String report = String.format("Comparison state %s: reused %d pair result(s), compared %d, kept %d "
+                                      + "detected pair(s) of %d document(s), dropped %d document(s) of earlier runs",
+                                      path,
+                                      reused,
+                                      compared,
+                                      detected.size(),
+                                      known.size(),
+                                      dropped);
+        if (discarded > 0) {
+            report += String.format("%n%d document(s) stored with other options were discarded", discarded);
+        }
+        return report;
+    }
+
+    /**
+     * @param out    {@link DataOutputStream} state file
+     * @param result {@link ComparisonResult} detected result to write
+     * @throws IOException if writing fails
+     */
+    private static void writeResult(DataOutputStream out, ComparisonResult result) throws IOException {
+        out.writeUTF(result.firstName());
+        out.writeUTF(result.secondName());
+        out.writeDouble(result.similarity());
+        out.writeInt(result.simHashDistance());
+        out.writeInt(result.sequence().size());
+        for (String word : result.sequence()) {
+            out.writeUTF(word);
+        }
+        out.writeInt(result.passages().size());
+        for (Passage passage : result.passages()) {
+            out.writeInt(passage.firstStart());
+            out.writeInt(passage.secondStart());
+            out.writeInt(passage.length());
+        }
+    }
+
+    /**
+     * @param in {@link DataInputStream} state file
+     * @return {@link ComparisonResult} detected result read back
+     * @throws IOException if reading fails
+     */
+    private static ComparisonResult readResult(DataInputStream in) throws IOException {
+        String firstName = in.readUTF();
+        String secondName = in.readUTF();
+        double similarity = in.readDouble();
+        int simHashDistance = in.readInt();
+        int words = in.readInt();
+        List<String> sequence = new ArrayList<>(words);
+        for (int w = 0; w < words; w++) {
+            sequence.add(in.readUTF());
+        }
+        int count = in.readInt();
+        List<Passage> passages = new ArrayList<>(count);
+        for (int p = 0; p < count; p++) {
+            passages.add(new Passage(in.readInt(), in.readInt(), in.readInt()));
+        }
+        return new ComparisonResult(firstName, secondName, similarity, sequence, passages, simHashDistance);
+    }
+}
@@ -0,0 +1,491 @@
+/*
+ * File: CorpusIndex
+ * Created On: 18-10-2026
+ */
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Persistent corpus of preprocessed documents in one memory mapped binary file, so a new submission can be
+ * checked against an archive without reading or tokenizing the archived files again.
+ * <p>
+ * The file holds the archive's vocabulary, every document's interned word ids, SimHash signature and name, and
+ * the winnowing fingerprints of all documents as a posting array sorted by hash. Opening the index maps the file
+ * and reads the fixed size header; nothing is parsed or copied up front. A query binary searches the postings
+ * for the fingerprints of the submission, and only the archived documents sharing enough fingerprints are
+ * turned back into {@link Document}s, with their word ids translated into the run's {@link TokenDictionary}.
+ * <p>
+ * All numbers are little endian. Layout, every section 8 byte aligned:
+ * <pre>
+ * header      magic, version, document count, word count, posting count, k, window, section offsets
+ * documents   long[n + 1] token offsets, long[n] SimHash, int[n + 1] name offsets, char[] names
+ * vocabulary  int[w + 1] word offsets, char[] words
+ * tokens      int[] word ids of all documents, back to back
+ * postings    long[p] fingerprint hashes, sorted, then int[p] documents, ascending within a hash
+ * </pre>
+ * Each section is mapped on its own, so a section must stay below 2 GB.
+ */
+final class CorpusIndex {
+
+    // "PDCORPUS" in ASCII
+    private static final long MAGIC = 0x5044434F52505553L;
+    private static final int VERSION = 1;
+    // magic, 7 ints, 8 section offsets
+    private static final int HEADER_BYTES = 8 + 7 * 4 + 8 * 8;
+    // Bytes buffered per write
+    private static final int WRITE_CHUNK = 1 << 16;
+
+    private final Path path;
+    private final int documentCount;
+    private final int wordCount;
+    private final int postingCount;
+    // Winnowing parameters the fingerprints were built with
+    private final int k;
+    private final int window;
+
+    private final LongBuffer tokenOffsets;
+    private final LongBuffer simHashes;
+    private final IntBuffer nameOffsets;
+    private final CharBuffer names;
+    private final IntBuffer wordOffsets;
+    private final CharBuffer words;
+    private final IntBuffer tokens;
+    private final LongBuffer postingHashes;
+    private final IntBuffer postingDocuments;
+
+    // Per archived word id, its id in the run's dictionary + 1, 0 if not translated yet
+    private int[] translation;
+    // Time open() took
+    private long openNanos;
+
+    private CorpusIndex(Path path, FileChannel channel) throws IOException {
+        this.path = path;
+        ByteBuffer header = map(channel, 0, HEADER_BYTES);
+        if (header.getLong() != MAGIC) {
+            throw new IOException("Not a corpus index: " + path);
+        }
+        int version = header.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported corpus index version " + version + ": " + path);
+        }
+        documentCount = header.getInt();
+        wordCount = header.getInt();
+        postingCount = header.getInt();
+        k = header.getInt();
+        window = header.getInt();
+        header.getInt();
+        long[] sections = new long[8];
+        for (int s = 0; s < sections.length; s++) {
+            sections[s] = header.getLong();
+        }
+
+        tokenOffsets = map(channel, sections[0], 8L * (documentCount + 1)).asLongBuffer();
+        simHashes = map(channel, sections[0] + 8L * (documentCount + 1), 8L * documentCount).asLongBuffer();
+        nameOffsets = map(channel, sections[1], 4L * (documentCount + 1)).asIntBuffer();
+        names = map(channel, sections[2], sections[3] - sections[2]).asCharBuffer();
+        wordOffsets = map(channel, sections[3], 4L * (wordCount + 1)).asIntBuffer();
+        words = map(channel, sections[4], sections[5] - sections[4]).asCharBuffer();
+        tokens = map(channel, sections[5], sections[6] - sections[5]).asIntBuffer();
+        postingHashes = map(channel, sections[6], 8L * postingCount).asLongBuffer();
+        postingDocuments = map(channel, sections[7], 4L * postingCount).asIntBuffer();
+    }
+
+    /**
+     * Map the index file; only the header is read
+     *
+     * @param path {@link Path} index file
+     * @return {@link CorpusIndex} the opened index
+     * @throws IOException if the file cannot be mapped or is not a corpus index
+     */
+    static CorpusIndex open(Path path) throws IOException {
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // mappings stay valid after the channel is closed
+            CorpusIndex index = new CorpusIndex(path, channel);
+            index.openNanos = System.nanoTime() - start;
+            return index;
+        }
+    }
+
+    /**
+     * Write an index of the given documents, replacing the file
+     *
+     * @param path       {@link Path} index file
+     * @param documents  {@link List<Document>} documents to archive, in index order
+     * @param dictionary {@link TokenDictionary} dictionary the document tokens come from
+     * @param winnowing  {@link Winnowing} fingerprinting whose k and window are stored with the postings
+     * @throws IOException if the file cannot be written or a section exceeds 2 GB
+     */
+    static void write(Path path, List<Document> documents, TokenDictionary dictionary, Winnowing winnowing)
+            throws IOException {
+        int n = documents.size();
+        int w = dictionary.size();
+
+        long[] tokenStarts = new long[n + 1];
+        long[] signatures = new long[n];
+        int[] nameStarts = new int[n + 1];
+        StringBuilder nameChars = new StringBuilder();
+        for (int d = 0; d < n; d++) {
+            Document document = documents.get(d);
+            tokenStarts[d + 1] = tokenStarts[d] + document.tokens().length;
+            signatures[d] = document.simHash();
+            nameChars.append(document.name());
+            nameStarts[d + 1] = nameChars.length();
+        }
+        int[] wordStarts = new int[w + 1];
+        StringBuilder wordChars = new StringBuilder();
+        for (int id = 0; id < w; id++) {
+            wordChars.append(dictionary.token(id));
+            wordStarts[id + 1] = wordChars.length();
+        }
+
+        // postings, one per distinct (fingerprint, document), sorted by hash and then document
+        long[] hashes = new long[64];
+        int[] owners = new int[64];
+        int postings = 0;
+        for (int d = 0; d < n; d++) {
+            long[] selected = winnowing.fingerprint(documents.get(d).tokens()).hashes().clone();
+            Arrays.sort(selected);
+            for (int f = 0; f < selected.length; f++) {
+                if (f > 0 && selected[f] == selected[f - 1]) {
+                    continue;
+                }
+                if (postings == hashes.length) {
+                    hashes = Arrays.copyOf(hashes, postings * 2);
+                    owners = Arrays.copyOf(owners, postings * 2);
+                }
+                hashes[postings] = selected[f];
+                owners[postings] = d;
+                postings++;
+            }
+        }
+        int[] order = sortedOrder(hashes, postings);
+
+        long[] sections = new long[8];
+        sections[0] = align(HEADER_BYTES);
+        sections[1] = align(sections[0] + 8L * (n + 1) + 8L * n);
+        sections[2] = sections[1] + 4L * (n + 1);
+        sections[3] = align(sections[2] + 2L * nameChars.length());
+        sections[4] = sections[3] + 4L * (w + 1);
+        sections[5] = align(sections[4] + 2L * wordChars.length());
+        sections[6] = align(sections[5] + 4L * tokenStarts[n]);
+        sections[7] = sections[6] + 8L * postings;
+        if (tokenStarts[n] * 4 > Integer.MAX_VALUE || 8L * postings > Integer.MAX_VALUE) {
+            throw new IOException("Corpus too large for one index file: " + path);
+        }
+
+        try (FileChannel channel = FileChannel.open(path,
+                                                    StandardOpenOption.CREATE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING,
+                                                    StandardOpenOption.WRITE)) {
+            Writer out = new Writer(channel);
+            out.putLong(MAGIC);
+            out.putInt(VERSION);
+            out.putInt(n);
+            out.putInt(w);
+            out.putInt(postings);
+            out.putInt(winnowing.k());
+            out.putInt(winnowing.window());
+            out.putInt(0);
+            for (long section : sections) {
+                out.putLong(section);
+            }
+            out.padTo(sections[0]);
+            for (long start : tokenStarts) {
+                out.putLong(start);
+            }
+            for (long signature : signatures) {
+                out.putLong(signature);
+            }
+            out.padTo(sections[1]);
+            for (int start : nameStarts) {
+                out.putInt(start);
+            }
+            out.putChars(nameChars);
+            out.padTo(sections[3]);
+            for (int start : wordStarts) {
+                out.putInt(start);
+            }
+            out.putChars(wordChars);
+            out.padTo(sections[5]);
+            for (Document document : documents) {
+                for (int token : document.tokens()) {
+                    out.putInt(token);
+                }
+            }
+            out.padTo(sections[6]);
+            for (int p = 0; p < postings; p++) {
+                out.putLong(hashes[order[p]]);
+            }
+            for (int p = 0; p < postings; p++) {
+                out.putInt(owners[order[p]]);
+            }
+            out.flush();
+        }
+    }
+
+    /**
+     * Archived documents that share at least minShared distinct fingerprints with a submission
+     *
+     * @param fingerprints {@link Winnowing.Fingerprints} fingerprints of the submission, built with {@link #k()} and
+     *                     {@link #window()}
+     * @param minShared    {@link Integer} distinct fingerprints a document must share
+     * @return {@link Integer[]} archived document indices, ascending
+     */
+    int[] candidates(Winnowing.Fingerprints fingerprints, int minShared) {
+        long[] distinct = fingerprints.hashes().clone();
+        Arrays.sort(distinct);
+        // one entry per (shared hash, document), postings hold each pair at most once
+        int[] hits = new int[16];
+        int hitCount = 0;
+        for (int f = 0; f < distinct.length; f++) {
+            if (f > 0 && distinct[f] == distinct[f - 1]) {
+                continue;
+            }
+            for (int p = firstPosting(distinct[f]); p < postingCount && postingHashes.get(p) == distinct[f]; p++) {
+                if (hitCount == hits.length) {
+                    hits = Arrays.copyOf(hits, hitCount * 2);
+                }
+                hits[hitCount++] = postingDocuments.get(p);
+            }
+        }
+        Arrays.sort(hits, 0, hitCount);
+        int[] documents = new int[hitCount];
+        int kept = 0;
+        for (int h = 0; h < hitCount; ) {
+            int run = h;
+            while (run < hitCount && hits[run] == hits[h]) {
+                run++;
+            }
+            if (run - h >= minShared) {
+                documents[kept++] = hits[h];
+            }
+            h = run;
+        }
+        return Arrays.copyOf(documents, kept);
+    }
+
+    /**
+     * Turn an archived document back into a {@link Document}, translating its word ids into the run's dictionary
+     *
+     * @param d          {@link Integer} archived document index
+     * @param dictionary {@link TokenDictionary} dictionary of the run
+     * @return {@link Document} the document, as if its file had been read again
+     */
+    Document document(int d, TokenDictionary dictionary) {
+        if (translation == null) {
+            translation = new int[wordCount];
+        }
+        int start = (int) tokenOffsets.get(d);
+        int end = (int) tokenOffsets.get(d + 1);
+        int[] ids = new int[end - start];
+        for (int t = 0; t < ids.length; t++) {
+            int archived = tokens.get(start + t);
+            if (translation[archived] == 0) {
+                translation[archived] = dictionary.intern(word(archived)) + 1;
+            }
+            ids[t] = translation[archived] - 1;
+        }
+        return Document.of(name(d), ids, simHashes.get(d), dictionary);
+    }
+
+    /**
+     * @param d {@link Integer} archived document index
+     * @return {@link String} file the document was read from when it was archived
+     */
+    String name(int d) {
+        int start = nameOffsets.get(d);
+        return names.subSequence(start, nameOffsets.get(d + 1)).toString();
+    }
+
+    /**
+     * @param id {@link Integer} archived word id
+     * @return {@link String} the word
+     */
+    private String word(int id) {
+        int start = wordOffsets.get(id);
+        return words.subSequence(start, wordOffsets.get(id + 1)).toString();
+    }
+
+    /**
+     * @return {@link Integer} number of archived documents
+     */
+    int documentCount() {
+        return documentCount;
+    }
+
+    /**
+     * @return {@link Integer} words per fingerprinted k-gram the index was built with
+     */
+    int k() {
+        return k;
+    }
+
+    /**
+     * @return {@link Integer} k-grams per winnowing window the index was built with
+     */
+    int window() {
+        return window;
+    }
+
+    /**
+     * Summary of the opened index
+     *
+     * @return {@link String} human readable description
+     */
+    String report() {
+        return String.format("Corpus index %s: %d document(s), %d word(s), %d posting(s) (k = %d, window = %d), "
+                             + "opened in %.1f ms",
+                             path,
+                             documentCount,
+                             wordCount,
+                             postingCount,
+                             k,
+                             window,
+                             openNanos / 1e6);
+    }
+
+    /**
+     * First posting whose hash is not below the given one
+     *
+     * @param hash {@link Long} fingerprint hash
+     * @return {@link Integer} posting index, postingCount if every hash is smaller
+     */
+    private int firstPosting(long hash) {
+        int low = 0;
+        int high = postingCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (postingHashes.get(middle) < hash) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Stable order of the first count hashes, by a bottom up merge sort of indices
+     *
+     * @param hashes {@link Long[]} hashes to order
+     * @param count  {@link Integer} number of hashes used
+     * @return {@link Integer[]} indices such that hashes[order[i]] ascends, equal hashes in index order
+     */
+    private static int[] sortedOrder(long[] hashes, int count) {
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        int[] merged = new int[count];
+        for (int width = 1; width < count; width *= 2) {
+            for (int left = 0; left < count; left += 2 * width) {
+                int middle = Math.min(left + width, count);
+                int right = Math.min(left + 2 * width, count);
+                int a = left;
+                int b = middle;
+                for (int out = left; out < right; out++) {
+                    if (a < middle && (b >= right || hashes[order[a]] <= hashes[order[b]])) {
+                        merged[out] = order[a++];
+                    } else {
+                        merged[out] = order[b++];
+                    }
+                }
+            }
+            int[] swap = order;
+            order = merged;
+            merged = swap;
+        }
+        return order;
+    }
+
+    /**
+     * @param offset {@link Long} byte offset
+     * @return {@link Long} offset rounded up to a multiple of 8
+     */
+    private static long align(long offset) {
+        return (offset + 7) & ~7L;
+    }
+
+    /**
+     * Map a read only, little endian section of the file
+     *
+     * @param channel {@link FileChannel} open index file
+     * @param offset  {@link Long} first byte of the section
+     * @param size    {@link Long} bytes in the section
+     * @return {@link ByteBuffer} the mapped section
+     * @throws IOException if the section is outside the file or cannot be mapped
+     */
+    private static ByteBuffer map(FileChannel channel, long offset, long size) throws IOException {
+        if (size < 0 || offset + size > channel.size()) {
+            throw new IOException("Truncated corpus index");
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, offset, size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Buffered little endian writer over a file channel
+     */
+    private static final class Writer {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_CHUNK).order(ByteOrder.LITTLE_ENDIAN);
+        // Bytes written so far, buffered ones included
+        private long position;
+
+        private Writer(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        private void putLong(long value) throws IOException {
+            ensure(8);
+            buffer.putLong(value);
+            position += 8;
+        }
+
+        private void putInt(int value) throws IOException {
+            ensure(4);
+            buffer.putInt(value);
+            position += 4;
+        }
+
+        private void putChars(CharSequence chars) throws IOException {
+            for (int i = 0; i < chars.length(); i++) {
+                ensure(2);
+                buffer.putChar(chars.charAt(i));
+            }
+            position += 2L * chars.length();
+        }
+
+        private void padTo(long offset) throws IOException {
+            while (position < offset) {
+                ensure(1);
+                buffer.put((byte) 0);
+                position++;
+            }
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,510 @@
+/*
+ * File: DetectorOptions
+ * Created On: 18-10-2026
+ */
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Command line options of {@link PlagiarismDetector}. Options start with {@code --} and take their value after
+ * an {@code =}; every other argument is a file to compare.
+ */
+final class DetectorOptions {
+
+    // Text printed when the arguments cannot be used
+    static final String USAGE = """
+            Usage: PlagiarismDetector [options] <file1> <file2> ...
+                   PlagiarismDetector --index=<file> --build-index [options] <file1> ...
+                   PlagiarismDetector --index=<file> [options] <submission1> ...
+            Options:
+              --lcs-memory=<size>   memory budget of one LCS table, e.g. 512k, 64m (default 32m)
+              --charset=<name>      charset of the input files (default UTF-8)
+              --threads=<n>         worker threads comparing pairs in parallel (default 1)
+              --similarity=<t>      edit distance similarity a pair must reach (default 0.5)
+              --pairs=<mode>        pairs to compare: all, length (only lengths that can reach the
+                                    similarity threshold), passjoin (pairs sharing a pass-join
+                                    segment, needs --similarity above 0.75), jaccard (pairs whose
+                                    word sets reach the Jaccard threshold), cosine (pairs whose
+                                    TF-IDF vectors reach the cosine threshold), lsh (MinHash LSH
+                                    candidates), winnow (pairs sharing winnowing fingerprints) or
+                                    simhash (only near duplicates) (default all)
+              --jaccard-threshold=<t>  word set Jaccard similarity --pairs=jaccard keeps (default 0.5)
+              --cosine-threshold=<t>   TF-IDF cosine similarity --pairs=cosine keeps (default 0.5)
+              --lsh-threshold=<t>   shingle Jaccard similarity LSH should catch (default 0.3)
+              --lsh-recall=<r>      probability LSH catches a pair at that similarity (default 0.95)
+              --winnow-k=<n>        words per fingerprinted k-gram (default 5)
+              --winnow-window=<n>   k-grams per winnowing window (default 4)
+              --winnow-min-shared=<n>  fingerprints a pair must share to be compared (default 1)
+              --near-duplicates=<h> flag pairs whose SimHash signatures differ in at most h bits
+                                    without the edit distance (default off, 3 with --pairs=simhash)
+              --evidence            also find the similar sequence of flagged near duplicates
+              --passages=<method>   list the copied passages of detected pairs: tiles (greedy string
+                                    tiling, non-overlapping) or maximal (every maximal common
+                                    passage, from a suffix array)
+              --approximate-lcs=<n> documents longer than n words get an approximate similar sequence
+                                    from chained k-gram anchors instead of the exact LCS (default off)
+              --anchor-k=<n>        words per anchor of --approximate-lcs (default 8)
+              --index=<file>        corpus index to check the files against; the files are also checked
+                                    against each other, both by the index's winnowing fingerprints, so
+                                    --pairs cannot be combined with it
+              --build-index         write the files to the --index file instead of comparing them
+              --state=<file>        incremental mode: keep pair results in this file and compare only
+                                    pairs without a stored result""";
+
+    /**
+     * How the pairs handed to the detailed comparison are chosen
+     */
+    enum PairMode {
+        // every pair i < j
+        ALL,
+        // pairs within the length window of LengthSweep
+        LENGTH,
+        // candidates of the PassJoin segment index
+        PASSJOIN,
+        // pairs PrefixFilterJoin finds above the word set Jaccard threshold
+        JACCARD,
+        // pairs TfIdfCosine finds above the cosine threshold
+        COSINE,
+        // candidates of MinHashLsh
+        LSH,
+        // candidates of Winnowing
+        WINNOW,
+        // near duplicates found by SimHashIndex
+        SIMHASH
+    }
+
+    /**
+     * How the copied passages of a detected pair are found
+     */
+    enum PassageMode {
+        // tiles of GreedyStringTiling
+        TILES,
+        // maximal matches of SuffixArrayMatcher
+        MAXIMAL
+    }
+
+    // Files to compare, in command line order
+    private final List<String> files = new ArrayList<>();
+    // Bytes a single LCS table may use before the divide and conquer kicks in
+    private long lcsMemoryBudget = LcsEngine.DEFAULT_MEMORY_BUDGET;
+    // Charset the input files are decoded with
+    private Charset charset = StandardCharsets.UTF_8;
+    // Worker threads comparing document pairs
+    private int threads = 1;
+    // Similarity threshold, NaN for the detector's default
+    private double similarityThreshold = Double.NaN;
+    // How the compared pairs are chosen
+    private PairMode pairMode = PairMode.ALL;
+    // Word set Jaccard similarity the prefix filter join keeps
+    private double jaccardThreshold = 0.5;
+    // TF-IDF cosine similarity the sparse matrix product keeps
+    private double cosineThreshold = 0.5;
+    // Similarity and recall the LSH band layout is derived from
+    private double lshThreshold = 0.3;
+    private double lshRecall = 0.95;
+    // Winnowing k-gram length, window and shared fingerprints per candidate
+    private int winnowK = 5;
+    private int winnowWindow = 4;
+    private int winnowMinShared = 1;
+    // Largest SimHash distance flagged as near duplicate, -1 if not given
+    private int nearDuplicateDistance = -1;
+    // Whether flagged near duplicates still get their similar sequence
+    private boolean evidence;
+    // How detected pairs get their passages, null for the winnowing passages of --pairs=winnow only
+    private PassageMode passageMode;
+    // Word count above which the similar sequence is approximated, -1 if always exact
+    private int approximateLcsWords = -1;
+    // Words per anchor of the approximate similar sequence
+    private int anchorK = 8;
+    // Corpus index file, null if none
+    private Path index;
+    // Whether the files are written to the index instead of compared
+    private boolean buildIndex;
+    // Incremental comparison state file, null if none
+    private Path state;
+
+    private DetectorOptions() {
+    }
+
+    /**
+     * Parse the command line
+     *
+     * @param args {@link String[]} command line arguments
+     * @return {@link DetectorOptions} parsed options
+     * @throws IllegalArgumentException if an option is unknown or has an invalid value
+     */
+    static DetectorOptions parse(String[] args) {
+        DetectorOptions options = new DetectorOptions();
+        boolean pairsGiven = false;
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                options.files.add(arg);
+                continue;
+            }
+            int separator = arg.indexOf('=');
+            String name = separator < 0 ? arg : arg.substring(0, separator);
+            String value = separator < 0 ? "" : arg.substring(separator + 1);
+            switch (name) {
+                case "--lcs-memory" -> options.lcsMemoryBudget = parseSize(name, value);
+                case "--charset" -> options.charset = parseCharset(name, value);
+                case "--threads" -> options.threads = parseCount(name, value);
+                case "--similarity" -> options.similarityThreshold = parseFraction(name, value);
+                case "--pairs" -> {
+                    options.pairMode = parsePairMode(name, value);
+                    pairsGiven = true;
+                }
+                case "--jaccard-threshold" -> options.jaccardThreshold = parseFraction(name, value);
+                case "--cosine-threshold" -> options.cosineThreshold = parseFraction(name, value);
+                case "--lsh-threshold" -> options.lshThreshold = parseFraction(name, value);
+                case "--lsh-recall" -> options.lshRecall = parseFraction(name, value);
+                case "--winnow-k" -> options.winnowK = parseCount(name, value);
+                case "--winnow-window" -> options.winnowWindow = parseCount(name, value);
+                case "--winnow-min-shared" -> options.winnowMinShared = parseCount(name, value);
+                case "--near-duplicates" -> options.nearDuplicateDistance = parseDistance(name, value);
+                case "--evidence" -> options.evidence = parseFlag(name, value);
+                case "--passages" -> options.passageMode = parsePassageMode(name, value);
+                case "--approximate-lcs" -> options.approximateLcsWords = parseCount(name, value);
+                case "--anchor-k" -> options.anchorK = parseCount(name, value);
+                case "--index" -> options.index = parsePath(name, value);
+                case "--build-index" -> options.buildIndex = parseFlag(name, value);
+                case "--state" -> options.state = parsePath(name, value);
+                default -> throw new IllegalArgumentException("Unknown option: " + name);
+            }
+        }
+        if (options.buildIndex && options.index == null) {
+            throw new IllegalArgumentException("--build-index needs --index=<file>");
+        }
+        if (pairsGiven && options.index != null) {
+            throw new IllegalArgumentException("--pairs cannot be combined with --index, whose candidates come from "
+                                               + "its winnowing fingerprints");
+        }
+        return options;
+    }
+
+    /**
+     * Parse a byte size with an optional k, m or g suffix
+     *
+     * @param name  {@link String} option the value belongs to, for the error message
+     * @param value {@link String} value to parse
+     * @return {@link Long} number of bytes
+     * @throws IllegalArgumentException if the value is not a positive size
+     */
+    private static long parseSize(String name, String value) {
+        String digits = value.toLowerCase(Locale.ROOT);
+        long unit = 1;
+        if (digits.endsWith("k") || digits.endsWith("m") || digits.endsWith("g")) {
+            unit = switch (digits.charAt(digits.length() - 1)) {
+                case 'k' -> 1L << 10;
+                case 'm' -> 1L << 20;
+                default -> 1L << 30;
+            };
+            digits = digits.substring(0, digits.length() - 1);
+        }
+        try {
+            long size = Math.multiplyExact(Long.parseLong(digits), unit);
+            if (size > 0) {
+                return size;
+            }
+        } catch (NumberFormatException | ArithmeticException ignored) {
+        }
+        throw new IllegalArgumentException("Invalid size for " + name + ": " + value);
+    }
+
+    /**
+     * Parse a positive count
+     *
+     * @param name  {@link String} option the value belongs to, for the error message
+     * @param value {@link String} value to parse
+     * @return {@link Integer} the count
+     * @throws IllegalArgumentException if the value is not a positive integer
+     */
+    private static int parseCount(String name, String value) {
+        try {
+            int count = Integer.parseInt(value);
+            if (count > 0) {
+                return count;
+            }
+        } catch (NumberFormatException ignored) {
+        }
+        throw new IllegalArgumentException("Invalid count for " + name + ": " + value);
+    }
+
+    /**
+     * Parse a SimHash distance
+     *
+     * @param name  {@link String} option the value belongs to, for the error message
+     * @param value {@link String} value to parse
+     * @return {@link Integer} the distance
+     * @throws IllegalArgumentException if the value is not an integer from 0 to {@link SimHashIndex#MAX_DISTANCE}
+     */
+    private static int parseDistance(String name, String value) {
+        try {
+            int distance = Integer.parseInt(value);
+            if (distance >= 0 && distance <= SimHashIndex.MAX_DISTANCE) {
+                return distance;
+            }
+        } catch (NumberFormatException ignored) {
+        }
+        throw new IllegalArgumentException("Invalid distance for " + name + ": " + value);
+    }
+
+    /**
+     * Parse a switch, given either bare or as =true / =false
+     *
+     * @param name  {@link String} option the value belongs to, for the error message
+     * @param value {@link String} value to parse, empty for a bare switch
+     * @return {@link Boolean} the switch value
+     * @throws IllegalArgumentException if the value is neither empty, true nor false
+     */
+    private static boolean parseFlag(String name, String value) {
+        return switch (value.toLowerCase(Locale.ROOT)) {
+            case "", "true" -> true;
+            case "false" -> false;
+            default -> throw new IllegalArgumentException("Invalid switch value for " + name + ": " + value);
+        };
+    }
+
+    /**
+     * Parse a file path
+     *
+     * @param name  {@link String} option the value belongs to, for the error message
+     * @param value {@link String} value to parse
+     * @return {@link Path} the path
+     * @throws IllegalArgumentException if the value is empty or not a valid path
+     */
+    private static Path parsePath(String name, String value) {
+        try {
+            if (!value.isEmpty()) {
+                return Path.of(value);
+            }
+        } catch (InvalidPathException ignored) {
+        }
+        throw new IllegalArgumentException("Invalid path for " + name + ": " + value);
+    }
+
+    /**
+     * Parse a fraction strictly between 0 and 1
+     *
+     * @param name  {@link String} option the value belongs to, for the error message
+     * @param value {@link String} value to parse
+     * @return {@link Double} the fraction
+     * @throws IllegalArgumentException if the value is not a number in (0, 1)
+     */
+    private static double parseFraction(String name, String value) {
+        try {
+            double fraction = Double.parseDouble(value);
+            if (fraction > 0 && fraction < 1) {
+                return fraction;
+            }
+        } catch (NumberFormatException ignored) {
+        }
+        throw new IllegalArgumentException("Invalid fraction for " + name + ": " + value);
+    }
+
+    /**
+     * Look up a pair mode by its lowercase name
+     *
+     * @param name  {@link String} option the value belongs to, for the error message
+     * @param value {@link String} mode name
+     * @return {@link PairMode} the mode
+     * @throws IllegalArgumentException if there is no such mode
+     */
+    private static PairMode parsePairMode(String name, String value) {
+        for (PairMode mode : PairMode.values()) {
+            if (mode.name().toLowerCase(Locale.ROOT).equals(value)) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Unknown pair mode for " + name + ": " + value);
+    }
+
+    /**
+     * Look up a passage mode by its lowercase name
+     *
+     * @param name  {@link String} option the value belongs to, for the error message
+     * @param value {@link String} mode name
+     * @return {@link PassageMode} the mode
+     * @throws IllegalArgumentException if there is no such mode
+     */
+    private static PassageMode parsePassageMode(String name, String value) {
+        for (PassageMode mode : PassageMode.values()) {
+            if (mode.name().toLowerCase(Locale.ROOT).equals(value)) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Unknown passage mode for " + name + ": " + value);
+    }
+
+    /**
+     * Look up a charset by name
+     *
+     * @param name  {@link String} option the value belongs to, for the error message
+     * @param value {@link String} charset name
+     * @return {@link Charset} the charset
+     * @throws IllegalArgumentException if the charset is unknown or unsupported
+     */
+    private static Charset parseCharset(String name, String value) {
+        try {
+            return Charset.forName(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown charset for " + name + ": " + value);
+        }
+    }
+
+    /**
+     * @return {@link List<String>} files to compare, in command line order
+     */
+    List<String> files() {
+        return files;
+    }
+
+    /**
+     * @return {@link Long} bytes a single LCS table may use
+     */
+    long lcsMemoryBudget() {
+        return lcsMemoryBudget;
+    }
+
+    /**
+     * @return {@link Charset} charset the input files are decoded with
+     */
+    Charset charset() {
+        return charset;
+    }
+
+    /**
+     * @return {@link Integer} worker threads comparing document pairs
+     */
+    int threads() {
+        return threads;
+    }
+
+    /**
+     * @return {@link Double} edit distance similarity a pair must reach, NaN if not given
+     */
+    double similarityThreshold() {
+        return similarityThreshold;
+    }
+
+    /**
+     * @return {@link PairMode} how the compared pairs are chosen
+     */
+    PairMode pairMode() {
+        return pairMode;
+    }
+
+    /**
+     * @return {@link Double} word set Jaccard similarity the prefix filter join keeps
+     */
+    double jaccardThreshold() {
+        return jaccardThreshold;
+    }
+
+    /**
+     * @return {@link Double} TF-IDF cosine similarity the sparse matrix product keeps
+     */
+    double cosineThreshold() {
+        return cosineThreshold;
+    }
+
+    /**
+     * @return {@link Double} shingle Jaccard similarity the LSH stage should catch
+     */
+    double lshThreshold() {
+        return lshThreshold;
+    }
+
+    /**
+     * @return {@link Double} probability the LSH stage catches a pair at the threshold
+     */
+    double lshRecall() {
+        return lshRecall;
+    }
+
+    /**
+     * @return {@link Integer} words per winnowing k-gram
+     */
+    int winnowK() {
+        return winnowK;
+    }
+
+    /**
+     * @return {@link Integer} k-grams per winnowing window
+     */
+    int winnowWindow() {
+        return winnowWindow;
+    }
+
+    /**
+     * @return {@link Integer} distinct fingerprints a pair must share to be compared
+     */
+    int winnowMinShared() {
+        return winnowMinShared;
+    }
+
+    /**
+     * @return {@link Integer} largest SimHash distance flagged as near duplicate, -1 if screening is off
+     */
+    int nearDuplicateDistance() {
+        if (nearDuplicateDistance < 0 && pairMode == PairMode.SIMHASH) {
+            return SimHashIndex.DEFAULT_DISTANCE;
+        }
+        return nearDuplicateDistance;
+    }
+
+    /**
+     * @return {@link Boolean} whether flagged near duplicates still get their similar sequence
+     */
+    boolean evidence() {
+        return evidence;
+    }
+
+    /**
+     * @return {@link PassageMode} how detected pairs get their passages, null if not given
+     */
+    PassageMode passageMode() {
+        return passageMode;
+    }
+
+    /**
+     * @return {@link Integer} word count above which a document gets the approximate similar sequence, -1 if the
+     * exact one is always computed
+     */
+    int approximateLcsWords() {
+        return approximateLcsWords;
+    }
+
+    /**
+     * @return {@link Integer} words per anchor of the approximate similar sequence
+     */
+    int anchorK() {
+        return anchorK;
+    }
+
+    /**
+     * @return {@link Path} corpus index file, null if none was given
+     */
+    Path index() {
+        return index;
+    }
+
+    /**
+     * @return {@link Boolean} whether the files are written to the index instead of compared
+     */
+    boolean buildIndex() {
+        return buildIndex;
+    }
+
+    /**
+     * @return {@link Path} incremental comparison state file, null if none was given
+     */
+    Path state() {
+        return state;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * File: Document
+ * Created On: 18-10-2026
+ */
+
+/**
+ * A preprocessed input file together with everything derived from it once, so pair comparisons never have to
+ * split or re-scan the text again
+ *
+ * @param name        {@link String} file the document was read from
+ * @param text        {@link String} preprocessed text, used by the character level edit distance
+ * @param tokens      {@link Integer[]} interned word ids in document order, used by the word level metrics
+ * @param profile     {@link PairPrefilter.Profile} summary used by the prefilters
+ * @param simHash     {@link Long} SimHash signature used by the near duplicate screening
+ * @param occurrences {@link LcsLengthEngine.Occurrences} positions of every distinct word, the LCS match masks
+ */
+record Document(String name,
+                String text,
+                int[] tokens,
+                PairPrefilter.Profile profile,
+                long simHash,
+                LcsLengthEngine.Occurrences occurrences) {
+
+    /**
+     * Build a document from the last text the tokenizer processed, interning its words straight from the
+     * tokenizer's buffer
+     *
+     * @param name       {@link String} file the document was read from
+     * @param tokenizer  {@link Tokenizer} tokenizer holding the preprocessed text
+     * @param dictionary {@link TokenDictionary} dictionary shared by all documents that are compared
+     * @return {@link Document} the document
+     */
+    static Document of(String name, Tokenizer tokenizer, TokenDictionary dictionary) {
+        String text = tokenizer.text();
+        int[] tokens = tokenizer.intern(dictionary);
+        LcsLengthEngine.Occurrences occurrences = LcsLengthEngine.Occurrences.of(tokens);
+        return new Document(name,
+                            text,
+                            tokens,
+                            PairPrefilter.Profile.of(text, occurrences),
+                            SimHashIndex.signature(tokens, dictionary),
+                            occurrences);
+    }
+
+    /**
+     * Rebuild a document from its interned words, e.g. one stored in a {@link CorpusIndex}. The preprocessed text
+     * is the words joined by single spaces, exactly what the {@link Tokenizer} produced
+     *
+     * @param name       {@link String} file the document was read from
+     * @param tokens     {@link Integer[]} word ids in document order
+     * @param simHash    {@link Long} stored SimHash signature
+     * @param dictionary {@link TokenDictionary} dictionary the ids come from
+     * @return {@link Document} the document
+     */
+    static Document of(String name, int[] tokens, long simHash, TokenDictionary dictionary) {
+        StringBuilder text = new StringBuilder();
+        for (int t = 0; t < tokens.length; t++) {
+            if (t > 0) {
+                text.append(' ');
+            }
+            text.append(dictionary.token(tokens[t]));
+        }
+        String joined = text.toString();
+        LcsLengthEngine.Occurrences occurrences = LcsLengthEngine.Occurrences.of(tokens);
+        return new Document(name,
+                            joined,
+                            tokens,
+                            PairPrefilter.Profile.of(joined, occurrences),
+                            simHash,
+                            occurrences);
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * File: DocumentReader
+ * Created On: 18-10-2026
+ */
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * NIO file ingestion that decodes straight into a {@link Tokenizer}. Small files are read with one bulk channel
+ * read and large files are memory mapped. In both cases the bytes are decoded in fixed size chunks into one
+ * reusable {@link CharBuffer}, and each chunk goes to the tokenizer. The whole decoded text never exists as a
+ * second copy next to the bytes. Malformed or unmappable input is replaced rather than aborting the run.
+ * <p>
+ * The reader keeps running totals so a run can report its ingestion throughput. The timing covers reading,
+ * decoding and tokenizing, since they are one pass. Buffers are reused, so one instance must not be shared
+ * between threads.
+ */
+final class DocumentReader {
+
+    // Files at least this large are memory mapped instead of read into a heap buffer
+    static final long MAP_THRESHOLD = 1L << 20;
+    // Chars decoded per chunk handed to the tokenizer
+    private static final int CHUNK_CHARS = 1 << 16;
+
+    // Charset every file is decoded with
+    private final Charset charset;
+    // Decoder for charset, reset before every file
+    private final CharsetDecoder decoder;
+    // Reusable decode target
+    private final CharBuffer chunk = CharBuffer.allocate(CHUNK_CHARS);
+
+    // Totals for the throughput report
+    private int filesRead;
+    private long bytesRead;
+    private long nanosSpent;
+
+    /**
+     * @param charset {@link Charset} charset the files are encoded in
+     */
+    DocumentReader(Charset charset) {
+        this.charset = charset;
+        this.decoder = charset.newDecoder()
+                              .onMalformedInput(CodingErrorAction.REPLACE)
+                              .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    /**
+     * Read a file and feed its decoded text to the tokenizer, replacing the tokenizer's previous result
+     *
+     * @param path      {@link Path} file to read
+     * @param tokenizer {@link Tokenizer} tokenizer that receives the text
+     * @throws IOException if the file cannot be read, {@link java.nio.file.NoSuchFileException} if it is missing
+     */
+    void read(Path path, Tokenizer tokenizer) throws IOException {
+        long start = System.nanoTime();
+        ByteBuffer bytes;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File too large: " + path);
+            }
+            if (size >= MAP_THRESHOLD) {
+                bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            } else {
+                bytes = ByteBuffer.allocate((int) size);
+                while (bytes.hasRemaining()) {
+                    if (channel.read(bytes) < 0) {
+                        break;
+                    }
+                }
+                bytes.flip();
+            }
+        }
+
+        int size = bytes.remaining();
+        decoder.reset();
+        tokenizer.begin();
+        CoderResult result;
+        do {
+            result = decoder.decode(bytes, chunk, true);
+            drain(tokenizer);
+        } while (result.isOverflow());
+        while (decoder.flush(chunk).isOverflow()) {
+            drain(tokenizer);
+        }
+        drain(tokenizer);
+        tokenizer.finish();
+
+        filesRead++;
+        bytesRead += size;
+        nanosSpent += System.nanoTime() - start;
+    }
+
+    /**
+     * Hand everything decoded so far to the tokenizer and empty the chunk
+     *
+     * @param tokenizer {@link Tokenizer} tokenizer that receives the text
+     */
+    private void drain(Tokenizer tokenizer) {
+        chunk.flip();
+        tokenizer.append(chunk.array(), chunk.arrayOffset() + chunk.position(), chunk.arrayOffset() + chunk.limit());
+        chunk.clear();
+    }
+
+    /**
+     * Summary of everything read so far
+     *
+     * @return {@link String} human readable throughput report
+     */
+    String report() {
+        double megabytes = bytesRead / (1024.0 * 1024.0);
+        double seconds = nanosSpent / 1e9;
+        return String.format("Read %d file(s), %.2f MB in %.1f ms (%.1f MB/s, %s)",
+                             filesRead,
+                             megabytes,
+                             nanosSpent / 1e6,
+                             seconds > 0 ? megabytes / seconds : 0.0,
+                             charset.name());
+    }
+}
@@ -0,0 +1,324 @@
+/*
+ * File: EditDistanceEngine
+ * Created On: 18-10-2026
+ */
+
+import java.util.Arrays;
+
+/**
+ * Levenshtein distance engine. Tiny inputs are handled by a two-row DP sized to the shorter text; everything
+ * else goes through the bit-parallel algorithm of Myers (1999) in the multi-block form of Hyyro (2003), which
+ * packs 64 DP cells of a column into one {@code long}. {@link #boundedDistance(String, String, int)} answers the
+ * thresholded question with a banded DP or an early-abandoning bit-parallel scan. All buffers are grown on
+ * demand and reused across calls, so one instance must not be shared between threads.
+ */
+final class EditDistanceEngine {
+
+    // Below this many DP cells building the bit-parallel match masks costs more than the plain DP
+    private static final int ROW_DP_MAX_CELLS = 256;
+    // Rough cost of one bit-parallel block step measured in plain DP cells, used to pick banded vs bit-parallel
+    private static final int BAND_CELLS_PER_BLOCK = 4;
+
+    // DP row for the previous character of the longer text
+    private int[] previousRow = new int[0];
+    // DP row being filled for the current character of the longer text
+    private int[] currentRow = new int[0];
+
+    // Maps a character to 1 + its slot in matchMasks, 0 if the character does not occur in the pattern
+    private final int[] charSlots = new int[Character.MAX_VALUE + 1];
+    // Characters with a non-zero entry in charSlots, so they can be cleared after each call
+    private char[] slotChars = new char[0];
+    // Per distinct pattern character, one 64-bit match mask per block of the pattern
+    private long[] matchMasks = new long[0];
+    // Vertical positive / negative delta vectors, one word per block
+    private long[] positiveVertical = new long[0];
+    private long[] negativeVertical = new long[0];
+    // Number of used entries in slotChars
+    private int slotCount;
+
+    /**
+     * Calculate the Edit Distance between two texts, picking the fastest exact algorithm for their size
+     *
+     * @param text1 {@link String} - text to compare to
+     * @param text2 {@link String} - text to compare from
+     * @return {@link Integer} edit distance between two texts
+     */
+    int distance(String text1, String text2) {
+        if ((long) text1.length() * text2.length() <= ROW_DP_MAX_CELLS) {
+            return rowDistance(text1, text2);
+        }
+        return bitParallelDistance(text1, text2);
+    }
+
+    /**
+     * Calculate the Edit Distance between two texts in O(min(n, m)) memory
+     *
+     * @param text1 {@link String} - text to compare to
+     * @param text2 {@link String} - text to compare from
+     * @return {@link Integer} edit distance between two texts
+     */
+    int rowDistance(String text1, String text2) {
+        // edit distance is symmetric, so let the rows run over the shorter text
+        String longer = text1.length() >= text2.length() ? text1 : text2;
+        String shorter = longer == text1 ? text2 : text1;
+        int rows = longer.length();
+        int columns = shorter.length();
+        if (columns == 0) {
+            return rows;
+        }
+
+        ensureCapacity(columns + 1);
+        int[] previous = previousRow;
+        int[] current = currentRow;
+        for (int j = 0; j <= columns; j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= rows; i++) {
+            char c = longer.charAt(i - 1);
+            current[0] = i;
+            for (int j = 1; j <= columns; j++) {
+                if (c == shorter.charAt(j - 1)) {
+                    current[j] = previous[j - 1];
+                } else {
+                    current[j] = 1 + Math.min(previous[j], Math.min(current[j - 1], previous[j - 1]));
+                }
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[columns];
+    }
+
+    /**
+     * Calculate the Edit Distance between two texts with the Myers / Hyyro bit-vector algorithm. The shorter text
+     * is the pattern and is split into ceil(m / 64) blocks, so the work is O(ceil(m / 64) * n) word operations
+     *
+     * @param text1 {@link String} - text to compare to
+     * @param text2 {@link String} - text to compare from
+     * @return {@link Integer} edit distance between two texts
+     */
+    int bitParallelDistance(String text1, String text2) {
+        return bitParallelDistance(text1, text2, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Bit-parallel Edit Distance that gives up once the distance is known to exceed maxDistance. After column j
+     * of the text the bottom DP cell is D[m][j], and D[m][n] >= D[m][j] - (n - j), so the scan stops as soon as
+     * that lower bound passes maxDistance
+     *
+     * @param text1       {@link String} - text to compare to
+     * @param text2       {@link String} - text to compare from
+     * @param maxDistance {@link Integer} largest distance the caller is interested in
+     * @return {@link Integer} the edit distance if it is at most maxDistance, otherwise maxDistance + 1
+     */
+    private int bitParallelDistance(String text1, String text2, int maxDistance) {
+        String text = text1.length() >= text2.length() ? text1 : text2;
+        String pattern = text == text1 ? text2 : text1;
+        int m = pattern.length();
+        int n = text.length();
+        if (m == 0) {
+            return n <= maxDistance ? n : maxDistance + 1;
+        }
+
+        int blocks = buildMatchMasks(pattern);
+        long[] vp = positiveVertical;
+        long[] vn = negativeVertical;
+        for (int b = 0; b < blocks; b++) {
+            vp[b] = -1L;
+            vn[b] = 0L;
+        }
+        long lastBit = 1L << ((m - 1) & 63);
+        int score = m;
+
+        for (int i = 0; i < text.length(); i++) {
+            int slot = charSlots[text.charAt(i)];
+            int maskBase = (slot - 1) * blocks;
+            // the first DP row is 0, 1, 2, ... so every column starts with a +1 horizontal delta
+            long hpCarry = 1L;
+            long hnCarry = 0L;
+            for (int b = 0; b < blocks; b++) {
+                long eq = slot == 0 ? 0L : matchMasks[maskBase + b];
+                long pv = vp[b];
+                long mv = vn[b];
+
+                long x = eq | hnCarry;
+                long d0 = (((x & pv) + pv) ^ pv) | x | mv;
+                long hp = mv | ~(d0 | pv);
+                long hn = d0 & pv;
+
+                long hpOut;
+                long hnOut;
+                if (b < blocks - 1) {
+                    hpOut = hp >>> 63;
+                    hnOut = hn >>> 63;
+                } else {
+                    hpOut = (hp & lastBit) != 0 ? 1L : 0L;
+                    hnOut = (hn & lastBit) != 0 ? 1L : 0L;
+                }
+
+                hp = (hp << 1) | hpCarry;
+                hn = (hn << 1) | hnCarry;
+                vp[b] = hn | ~(d0 | hp);
+                vn[b] = hp & d0;
+                hpCarry = hpOut;
+                hnCarry = hnOut;
+            }
+            // the carries out of the last block are the horizontal delta of the bottom DP row
+            score += (int) (hpCarry - hnCarry);
+            if (score - (n - 1 - i) > maxDistance) {
+                clearMatchMasks();
+                return maxDistance + 1;
+            }
+        }
+
+        clearMatchMasks();
+        return score;
+    }
+
+    /**
+     * Calculate the Edit Distance between two texts only as far as it matters for a caller that needs to know
+     * whether it is at most maxDistance. Length differences above the bound are rejected without any DP; narrow
+     * bounds fill only the diagonal band of width 2k + 1 (Ukkonen) and abandon the table as soon as a whole row of
+     * the band exceeds the bound; wide bounds use the bit-parallel kernel with the same early exit
+     *
+     * @param text1       {@link String} - text to compare to
+     * @param text2       {@link String} - text to compare from
+     * @param maxDistance {@link Integer} largest distance the caller is interested in, at least 0
+     * @return {@link Integer} the edit distance if it is at most maxDistance, otherwise maxDistance + 1
+     */
+    int boundedDistance(String text1, String text2, int maxDistance) {
+        int n = Math.max(text1.length(), text2.length());
+        int m = Math.min(text1.length(), text2.length());
+        if (n - m > maxDistance) {
+            return maxDistance + 1;
+        }
+        if (m == 0) {
+            return n;
+        }
+        long bandCells = 2L * maxDistance + 1;
+        if (bandCells < m && bandCells <= BAND_CELLS_PER_BLOCK * ((m + 63L) >>> 6)) {
+            return bandedDistance(text1, text2, maxDistance);
+        }
+        return bitParallelDistance(text1, text2, maxDistance);
+    }
+
+    /**
+     * Ukkonen's banded Edit Distance: only the cells with |i - j| <= maxDistance can lie on a path of cost at
+     * most maxDistance, so everything outside that diagonal band is treated as maxDistance + 1
+     *
+     * @param text1       {@link String} - text to compare to
+     * @param text2       {@link String} - text to compare from
+     * @param maxDistance {@link Integer} largest distance the caller is interested in
+     * @return {@link Integer} the edit distance if it is at most maxDistance, otherwise maxDistance + 1
+     */
+    private int bandedDistance(String text1, String text2, int maxDistance) {
+        String longer = text1.length() >= text2.length() ? text1 : text2;
+        String shorter = longer == text1 ? text2 : text1;
+        int rows = longer.length();
+        int columns = shorter.length();
+        int outside = maxDistance + 1;
+
+        ensureCapacity(columns + 1);
+        int[] previous = previousRow;
+        int[] current = currentRow;
+        int firstHigh = Math.min(columns, maxDistance);
+        for (int j = 0; j <= firstHigh; j++) {
+            previous[j] = j;
+        }
+        if (firstHigh < columns) {
+            previous[firstHigh + 1] = outside;
+        }
+
+        for (int i = 1; i <= rows; i++) {
+            char c = longer.charAt(i - 1);
+            int low = Math.max(1, i - maxDistance);
+            int high = Math.min(columns, i + maxDistance);
+            current[low - 1] = low == 1 ? Math.min(i, outside) : outside;
+            int rowMinimum = current[low - 1];
+            for (int j = low; j <= high; j++) {
+                int value;
+                if (c == shorter.charAt(j - 1)) {
+                    value = previous[j - 1];
+                } else {
+                    value = 1 + Math.min(previous[j], Math.min(current[j - 1], previous[j - 1]));
+                }
+                value = Math.min(value, outside);
+                current[j] = value;
+                rowMinimum = Math.min(rowMinimum, value);
+            }
+            if (high < columns) {
+                current[high + 1] = outside;
+            }
+            // every path to the last cell crosses this row, so nothing below can come back under the bound
+            if (rowMinimum > maxDistance) {
+                return outside;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[columns];
+    }
+
+    /**
+     * Build the per-character match masks of the pattern and size the delta vectors for it
+     *
+     * @param pattern {@link String} shorter text the bit vectors run over
+     * @return {@link Integer} number of 64-bit blocks the pattern occupies
+     */
+    private int buildMatchMasks(String pattern) {
+        int m = pattern.length();
+        int blocks = (m + 63) >>> 6;
+        if (positiveVertical.length < blocks) {
+            positiveVertical = new long[blocks];
+            negativeVertical = new long[blocks];
+        }
+
+        int distinct = 0;
+        for (int p = 0; p < m; p++) {
+            char c = pattern.charAt(p);
+            int slot = charSlots[c];
+            if (slot == 0) {
+                if (distinct == slotChars.length) {
+                    slotChars = Arrays.copyOf(slotChars, Math.max(16, distinct * 2));
+                }
+                int needed = (distinct + 1) * blocks;
+                if (matchMasks.length < needed) {
+                    matchMasks = Arrays.copyOf(matchMasks, Math.max(needed, matchMasks.length * 2));
+                }
+                Arrays.fill(matchMasks, distinct * blocks, needed, 0L);
+                slotChars[distinct] = c;
+                slot = ++distinct;
+                charSlots[c] = slot;
+            }
+            matchMasks[(slot - 1) * blocks + (p >>> 6)] |= 1L << (p & 63);
+        }
+        slotCount = distinct;
+        return blocks;
+    }
+
+    /**
+     * Reset the character slots touched by the last {@link #buildMatchMasks(String)} call
+     */
+    private void clearMatchMasks() {
+        for (int s = 0; s < slotCount; s++) {
+            charSlots[slotChars[s]] = 0;
+        }
+        slotCount = 0;
+    }
+
+    /**
+     * Grow the reusable row buffers so they can hold at least the given number of cells
+     *
+     * @param cells {@link Integer} number of cells needed per row
+     */
+    private void ensureCapacity(int cells) {
+        if (previousRow.length < cells) {
+            int capacity = Math.max(cells, previousRow.length * 2);
+            previousRow = new int[capacity];
+            currentRow = new int[capacity];
+        }
+    }
+}
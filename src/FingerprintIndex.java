@@ -0,0 +1,128 @@
+/*
+ * File: FingerprintIndex
+ * Created On: 18-10-2026
+ */
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Inverted index from a fingerprint hash to every (document, position) it was selected at. Documents are added
+ * in ascending index order, so each posting list is sorted by document and then by position.
+ */
+final class FingerprintIndex {
+
+    // Posting list of every fingerprint hash
+    private final Map<Long, Postings> postings = new HashMap<>();
+    // Number of (document, position) entries
+    private long entries;
+
+    /**
+     * Index the fingerprints of one document
+     *
+     * @param document     {@link Integer} document index, not smaller than any index added before
+     * @param fingerprints {@link Winnowing.Fingerprints} the document's selected fingerprints
+     */
+    void add(int document, Winnowing.Fingerprints fingerprints) {
+        long[] hashes = fingerprints.hashes();
+        int[] positions = fingerprints.positions();
+        for (int f = 0; f < hashes.length; f++) {
+            postings.computeIfAbsent(hashes[f], h -> new Postings()).add(document, positions[f]);
+        }
+        entries += hashes.length;
+    }
+
+    /**
+     * @param hash {@link Long} fingerprint hash
+     * @return {@link Postings} where the fingerprint occurs, null if nowhere
+     */
+    Postings postings(long hash) {
+        return postings.get(hash);
+    }
+
+    /**
+     * Document pairs that share fingerprints, counting each distinct shared hash once per pair
+     *
+     * @param minShared {@link Integer} distinct fingerprints a pair must share
+     * @return {@link Long[]} packed pairs (see {@link CandidateGenerator#pair(int, int)}), sorted, without duplicates
+     */
+    long[] sharedPairs(int minShared) {
+        CandidateGenerator.PairList pairs = new CandidateGenerator.PairList();
+        int[] distinct = new int[16];
+        for (Postings list : postings.values()) {
+            int count = 0;
+            for (int e = 0; e < list.size; e++) {
+                int document = list.documents[e];
+                if (count == 0 || distinct[count - 1] != document) {
+                    if (count == distinct.length) {
+                        distinct = Arrays.copyOf(distinct, count * 2);
+                    }
+                    distinct[count++] = document;
+                }
+            }
+            for (int a = 0; a < count; a++) {
+                for (int b = a + 1; b < count; b++) {
+                    pairs.add(distinct[a], distinct[b]);
+                }
+            }
+        }
+        return pairs.toSortedArray(minShared);
+    }
+
+    /**
+     * @return {@link Integer} number of distinct fingerprint hashes
+     */
+    int fingerprintCount() {
+        return postings.size();
+    }
+
+    /**
+     * @return {@link Long} number of (document, position) entries
+     */
+    long entryCount() {
+        return entries;
+    }
+
+    /**
+     * Occurrences of one fingerprint, in the order they were added
+     */
+    static final class Postings {
+        private int[] documents = new int[2];
+        private int[] positions = new int[2];
+        private int size;
+
+        private void add(int document, int position) {
+            if (size == documents.length) {
+                documents = Arrays.copyOf(documents, size * 2);
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            documents[size] = document;
+            positions[size] = position;
+            size++;
+        }
+
+        /**
+         * @return {@link Integer} number of occurrences
+         */
+        int size() {
+            return size;
+        }
+
+        /**
+         * @param e {@link Integer} occurrence
+         * @return {@link Integer} document of the occurrence
+         */
+        int document(int e) {
+            return documents[e];
+        }
+
+        /**
+         * @param e {@link Integer} occurrence
+         * @return {@link Integer} word offset of the fingerprinted k-gram in its document
+         */
+        int position(int e) {
+            return positions[e];
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * File: GreedyStringTiling
+ * Created On: 18-10-2026
+ */
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Running-Karp-Rabin Greedy String Tiling (Wise) over interned word ids: covers two documents with the longest
+ * non-overlapping common runs of words, the tiles, the way JPlag does.
+ * <p>
+ * Tiling proceeds with a search length s that starts at {@link #INITIAL_SEARCH_LENGTH}. Every s word window of
+ * the second document that contains no tiled word goes into a hash table under its Karp-Rabin hash. Every such
+ * window of the first document looks itself up, hits are checked word by word and extended as far as both
+ * sides stay equal and untiled; hits that also match one word further left are skipped, they are the tail of a
+ * match found before. A match longer than 2s restarts the scan with s set to its length, so the long tiles are
+ * found first without many passes. Otherwise the matches are tiled longest first, skipping those that
+ * overlap a tile laid in the same pass, and s is halved down to the minimum match length. Passes at the minimum
+ * length repeat until one lays no tile, so no untiled common run of the minimum length is left.
+ * <p>
+ * Each pass is linear in the document lengths plus the hash hits, and the number of passes is logarithmic in the
+ * longest tile plus the repeats at the minimum length, rarely more than one or two, so typical inputs take close
+ * to linear time. Only documents full of repeated words cause many hits per window.
+ */
+final class GreedyStringTiling {
+
+    // Search length of the first pass
+    static final int INITIAL_SEARCH_LENGTH = 32;
+    // Multiplier of the polynomial window hash
+    private static final long BASE = 0x9E3779B97F4A7C15L;
+
+    // Shortest run of words that becomes a tile
+    private final int minimumMatch;
+
+    /**
+     * @param minimumMatch {@link Integer} shortest run of words that becomes a tile, at least 1
+     */
+    GreedyStringTiling(int minimumMatch) {
+        this.minimumMatch = minimumMatch;
+    }
+
+    /**
+     * Tile two documents
+     *
+     * @param first  {@link Integer[]} interned words of the first document
+     * @param second {@link Integer[]} interned words of the second document
+     * @return {@link List<Passage>} non-overlapping tiles of at least the minimum match length, ordered by their
+     * offset in the first document
+     */
+    List<Passage> tiles(int[] first, int[] second) {
+        boolean[] firstTiled = new boolean[first.length];
+        boolean[] secondTiled = new boolean[second.length];
+        long[] firstPrefix = prefixHashes(first);
+        long[] secondPrefix = prefixHashes(second);
+        List<Passage> tiles = new ArrayList<>();
+
+        int search = Math.max(minimumMatch, INITIAL_SEARCH_LENGTH);
+        while (true) {
+            List<Passage> matches = new ArrayList<>();
+            int longest = scan(first, second, firstTiled, secondTiled, firstPrefix, secondPrefix, search, matches);
+            if (longest > 2 * search) {
+                // a much longer match exists, look for the matches of its length first
+                search = longest;
+                continue;
+            }
+            matches.sort(Comparator.comparingInt(Passage::length).reversed());
+            boolean laid = false;
+            for (Passage match : matches) {
+                if (!occluded(firstTiled, match.firstStart(), match.length())
+                    && !occluded(secondTiled, match.secondStart(), match.length())) {
+                    for (int w = 0; w < match.length(); w++) {
+                        firstTiled[match.firstStart() + w] = true;
+                        secondTiled[match.secondStart() + w] = true;
+                    }
+                    tiles.add(match);
+                    laid = true;
+                }
+            }
+            if (search > 2 * minimumMatch) {
+                search /= 2;
+            } else if (search > minimumMatch) {
+                search = minimumMatch;
+            } else if (!laid) {
+                // nothing untiled of the minimum length is left; a pass that laid tiles is repeated, because a
+                // match occluded by one of them may still have an untiled remainder of the minimum length
+                break;
+            }
+        }
+        tiles.sort(Comparator.comparingInt(Passage::firstStart));
+        return tiles;
+    }
+
+    /**
+     * One pass: find the maximal untiled matches that start with a common window of the search length
+     *
+     * @param first        {@link Integer[]} words of the first document
+     * @param second       {@link Integer[]} words of the second document
+     * @param firstTiled   {@link Boolean[]} tiled words of the first document
+     * @param secondTiled  {@link Boolean[]} tiled words of the second document
+     * @param firstPrefix  {@link Long[]} prefix hashes of the first document
+     * @param secondPrefix {@link Long[]} prefix hashes of the second document
+     * @param search       {@link Integer} search length
+     * @param matches      {@link List<Passage>} receives the matches of at least the search length
+     * @return {@link Integer} length of the longest match, which may exceed 2 * search before all are found
+     */
+    private static int scan(int[] first,
+                            int[] second,
+                            boolean[] firstTiled,
+                            boolean[] secondTiled,
+                            long[] firstPrefix,
+                            long[] secondPrefix,
+                            int search,
+                            List<Passage> matches) {
+        long power = 1;
+        for (int i = 0; i < search; i++) {
+            power *= BASE;
+        }
+        Map<Long, List<Integer>> windows = new HashMap<>();
+        int[] secondFree = untiledRuns(secondTiled);
+        for (int q = 0; q + search <= second.length; q++) {
+            if (secondFree[q] >= search) {
+                long hash = secondPrefix[q + search] - secondPrefix[q] * power;
+                windows.computeIfAbsent(hash, h -> new ArrayList<>()).add(q);
+            }
+        }
+
+        int longest = 0;
+        int[] firstFree = untiledRuns(firstTiled);
+        for (int p = 0; p + search <= first.length; p++) {
+            if (firstFree[p] < search) {
+                continue;
+            }
+            List<Integer> hits = windows.get(firstPrefix[p + search] - firstPrefix[p] * power);
+            if (hits == null) {
+                continue;
+            }
+            for (int q : hits) {
+                if (p > 0 && q > 0
+                    && firstFree[p - 1] > 0
+                    && secondFree[q - 1] > 0
+                    && first[p - 1] == second[q - 1]) {
+                    // the match continues to the left, it was found from its real start already
+                    continue;
+                }
+                int length = 0;
+                int limit = Math.min(firstFree[p], secondFree[q]);
+                while (length < limit && first[p + length] == second[q + length]) {
+                    length++;
+                }
+                if (length < search) {
+                    // hash collision
+                    continue;
+                }
+                if (length > 2 * search) {
+                    return length;
+                }
+                matches.add(new Passage(p, q, length));
+                longest = Math.max(longest, length);
+            }
+        }
+        return longest;
+    }
+
+    /**
+     * @param tiled {@link Boolean[]} tiled words of a document
+     * @return {@link Integer[]} for every offset, the number of untiled words starting there
+     */
+    private static int[] untiledRuns(boolean[] tiled) {
+        int[] runs = new int[tiled.length + 1];
+        for (int i = tiled.length - 1; i >= 0; i--) {
+            runs[i] = tiled[i] ? 0 : runs[i + 1] + 1;
+        }
+        return runs;
+    }
+
+    /**
+     * @param tiled  {@link Boolean[]} tiled words of a document
+     * @param start  {@link Integer} first word of the range
+     * @param length {@link Integer} words in the range
+     * @return {@link Boolean} true if any word of the range is tiled
+     */
+    private static boolean occluded(boolean[] tiled, int start, int length) {
+        for (int w = start; w < start + length; w++) {
+            if (tiled[w]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Polynomial prefix hashes, so any window hash is one subtraction and one multiplication
+     *
+     * @param tokens {@link Integer[]} words of a document
+     * @return {@link Long[]} hash of every prefix, tokens.length + 1 values
+     */
+    private static long[] prefixHashes(int[] tokens) {
+        long[] prefix = new long[tokens.length + 1];
+        for (int i = 0; i < tokens.length; i++) {
+            prefix[i + 1] = prefix[i] * BASE + TokenDictionary.mix64(tokens[i]);
+        }
+        return prefix;
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * File: HuntSzymanski
+ * Created On: 18-10-2026
+ */
+
+import java.util.Arrays;
+
+/**
+ * Sparse word-level longest common subsequence after Hunt and Szymanski (1977), for pairs that share few word
+ * matches. Its cost depends on the r matching (i, j) word pairs instead of the n * m table cells:
+ * O((r + n) log n) time and O(r + n + m) memory.
+ * <p>
+ * Row by row of the first document it keeps the threshold array T, where T[k] is the smallest prefix of the
+ * second document with an LCS of k against the rows seen so far. The matches of a row are applied in descending
+ * column order, each one lowering at most one threshold found by binary search. Every change is logged with the
+ * value it replaced, so the rows can be undone one by one afterwards.
+ * <p>
+ * The traceback then walks from the last row up, undoing each row's changes to get the thresholds of the row
+ * above, and takes exactly the steps of the {@link LcsEngine} backtrack: the match when the current words are
+ * equal, up when dp[i - 1][j] = T[v] <= j still holds the current value v, otherwise left. A left step keeps the
+ * value and never enables an up step again in the same row, so the run of left steps jumps straight to the
+ * previous occurrence of the row's word. The result is the same subsequence the full table gives.
+ */
+final class HuntSzymanski {
+
+    // Table cells the dense DP fills in the time one sparse match step takes, binary search and undo included
+    static final int CELLS_PER_MATCH = 16;
+
+    // Threshold of an LCS length not reached yet
+    private static final int UNREACHED = Integer.MAX_VALUE;
+
+    private HuntSzymanski() {
+    }
+
+    /**
+     * Number of matching word pairs of two documents, the r of the sparse algorithm
+     *
+     * @param first  {@link LcsLengthEngine.Occurrences} word positions of the first document
+     * @param second {@link LcsLengthEngine.Occurrences} word positions of the second document
+     * @return {@link Long} sum over the common words of their occurrence counts multiplied
+     */
+    static long matchCount(LcsLengthEngine.Occurrences first, LcsLengthEngine.Occurrences second) {
+        long matches = 0;
+        int[] a = first.words();
+        int[] b = second.words();
+        for (int x = 0, y = 0; x < a.length && y < b.length; ) {
+            if (a[x] == b[y]) {
+                matches += (long) (first.offsets()[x + 1] - first.offsets()[x])
+                           * (second.offsets()[y + 1] - second.offsets()[y]);
+                x++;
+                y++;
+            } else if (a[x] < b[y]) {
+                x++;
+            } else {
+                y++;
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Decide whether the sparse algorithm is cheaper than filling the table
+     *
+     * @param first  {@link LcsLengthEngine.Occurrences} word positions of the first document
+     * @param n      {@link Integer} number of words of the first document
+     * @param second {@link LcsLengthEngine.Occurrences} word positions of the second document
+     * @param m      {@link Integer} number of words of the second document
+     * @return {@link Boolean} true if the match count is small compared with n * m
+     */
+    static boolean preferred(LcsLengthEngine.Occurrences first, int n, LcsLengthEngine.Occurrences second, int m) {
+        return matchCount(first, second) * CELLS_PER_MATCH < (long) n * m;
+    }
+
+    /**
+     * Find the longest common subsequence of two word lists
+     *
+     * @param words1 {@link Integer[]} word ids of the first text
+     * @param words2 {@link Integer[]} word ids of the second text
+     * @param second {@link LcsLengthEngine.Occurrences} word positions of the second text
+     * @return {@link Integer[]} ids of the common subsequence, last word first (same order as the backtrack)
+     */
+    static int[] traceback(int[] words1, int[] words2, LcsLengthEngine.Occurrences second) {
+        int n = words1.length;
+        int[] words = second.words();
+        int[] offsets = second.offsets();
+        int[] positions = second.positions();
+
+        // thresholds[k] for k = 1..length, 1 based columns
+        int[] thresholds = new int[Math.min(n, words2.length) + 2];
+        Arrays.fill(thresholds, UNREACHED);
+        int length = 0;
+        // changes of every row: the length index and the value it replaced
+        int[] rowStart = new int[n + 2];
+        int[] changedIndex = new int[16];
+        int[] replacedValue = new int[16];
+        int changes = 0;
+
+        for (int i = 1; i <= n; i++) {
+            rowStart[i] = changes;
+            int slot = Arrays.binarySearch(words, words1[i - 1]);
+            if (slot < 0) {
+                continue;
+            }
+            for (int e = offsets[slot + 1] - 1; e >= offsets[slot]; e--) {
+                int column = positions[e] + 1;
+                // smallest k with thresholds[k] >= column
+                int k = lowerBound(thresholds, length, column);
+                if (thresholds[k] == column) {
+                    continue;
+                }
+                if (changes == changedIndex.length) {
+                    changedIndex = Arrays.copyOf(changedIndex, changes * 2);
+                    replacedValue = Arrays.copyOf(replacedValue, changes * 2);
+                }
+                changedIndex[changes] = k;
+                replacedValue[changes] = thresholds[k];
+                changes++;
+                thresholds[k] = column;
+                length = Math.max(length, k);
+            }
+        }
+        rowStart[n + 1] = changes;
+
+        int[] subsequence = new int[length];
+        int found = 0;
+        int value = length;
+        int j = words2.length;
+        for (int i = n; value > 0; i--) {
+            // undo this row, leaving the thresholds of row i - 1
+            for (int c = rowStart[i + 1] - 1; c >= rowStart[i]; c--) {
+                thresholds[changedIndex[c]] = replacedValue[c];
+            }
+            int word = words1[i - 1];
+            if (word != words2[j - 1]) {
+                if (thresholds[value] <= j) {
+                    // dp[i - 1][j] still holds the value, step up
+                    continue;
+                }
+                // step left to the previous occurrence of the row's word
+                int slot = Arrays.binarySearch(words, word);
+                int e = Arrays.binarySearch(positions, offsets[slot], offsets[slot + 1], j - 1);
+                j = positions[(e < 0 ? -e - 1 : e) - 1] + 1;
+            }
+            subsequence[found++] = word;
+            value--;
+            j--;
+        }
+        return subsequence;
+    }
+
+    /**
+     * @param thresholds {@link Integer[]} ascending thresholds at indices 1..length, UNREACHED after
+     * @param length     {@link Integer} current LCS length
+     * @param column     {@link Integer} column to place
+     * @return {@link Integer} smallest k in 1..length + 1 with thresholds[k] >= column
+     */
+    private static int lowerBound(int[] thresholds, int length, int column) {
+        int low = 1;
+        int high = length + 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (thresholds[middle] < column) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * File: LcsEngine
+ * Created On: 18-10-2026
+ */
+
+import java.util.Arrays;
+
+/**
+ * Word-level longest common subsequence over interned word ids, with evidence recovery inside a fixed memory
+ * budget.
+ * <p>
+ * This is a Hirschberg-style divide and conquer, with one difference: both halves are solved with forward DP
+ * rows only, never with a reversed suffix DP. Because of that, the recovered subsequence is exactly the one that
+ * {@link PlagiarismDetector#findLongestCommonSubsequence(String, String)} gets by backtracking the full table:
+ * same words and same tie-breaking. The bottom half is traced first from its checkpoint row. It reports the
+ * column where the path enters the middle row, and the top half is then solved only up to that column. A
+ * subproblem whose table fits in the budget is filled and traced directly. Peak memory is the budget plus one
+ * checkpoint row per recursion level, and the number of levels is logarithmic in how far the table exceeds the
+ * budget.
+ * <p>
+ * A directly traced block keeps only 2 bits of traceback direction per cell, 16 times less than an {@code int}
+ * table. It is walked back with a loop, so the path length is not limited by the thread stack.
+ */
+final class LcsEngine {
+
+    // Memory for the LCS table of a single pair when nothing else is configured
+    static final long DEFAULT_MEMORY_BUDGET = 32L << 20;
+
+    // Traceback directions, 2 bits per cell; the values follow the preference order of the backtrack
+    private static final int DIAGONAL = 0;
+    private static final int UP = 1;
+    private static final int LEFT = 2;
+    // Number of 2 bit direction cells packed into one long
+    private static final int CELLS_PER_WORD = Long.SIZE / 2;
+    // Largest block a single direction array can hold
+    private static final long MAX_BLOCK_BYTES = (Integer.MAX_VALUE - 8L) * Long.BYTES;
+
+    private LcsEngine() {
+    }
+
+    /**
+     * Number of bytes a directly traced block of the DP takes: 2 bits of traceback direction per cell plus the
+     * two {@code int} rows used to fill it
+     *
+     * @param rows    {@link Integer} number of rows of words1 in the block
+     * @param columns {@link Integer} number of columns of words2 in the block
+     * @return {@link Long} block size in bytes
+     */
+    static long blockBytes(int rows, int columns) {
+        long directionWords = ((long) rows * columns + CELLS_PER_WORD - 1) / CELLS_PER_WORD;
+        return directionWords * Long.BYTES + 2L * (columns + 1) * Integer.BYTES;
+    }
+
+    /**
+     * Find the longest common subsequence of two word lists without ever holding a table larger than the budget
+     *
+     * @param words1       {@link Integer[]} word ids of the first text
+     * @param words2       {@link Integer[]} word ids of the second text
+     * @param memoryBudget {@link Long} bytes a single DP table may use
+     * @return {@link Integer[]} ids of the common subsequence, last word first (same order as the backtrack)
+     */
+    static int[] traceback(int[] words1, int[] words2, long memoryBudget) {
+        Subsequence subsequence = new Subsequence();
+        // dp[0][*] is all zeros
+        int[] topRow = new int[words2.length + 1];
+        solve(words1, words2, 0, words1.length, words2.length, topRow, memoryBudget, subsequence);
+        return Arrays.copyOf(subsequence.ids, subsequence.size);
+    }
+
+    /**
+     * Trace the backtrack path from cell (bottom, right) up to row top, given the DP values of row top
+     *
+     * @param words1       {@link Integer[]} word ids of the first text
+     * @param words2       {@link Integer[]} word ids of the second text
+     * @param top          {@link Integer} first row of the subproblem, whose values are in topRow
+     * @param bottom       {@link Integer} row the path starts from
+     * @param right        {@link Integer} column the path starts from
+     * @param topRow       {@link Integer[]} dp[top][0..right]
+     * @param memoryBudget {@link Long} bytes a single DP table may use
+     * @param subsequence  {@link Subsequence} collects the matched word ids
+     * @return {@link Integer} column at which the path reaches row top
+     */
+    private static int solve(int[] words1,
+                             int[] words2,
+                             int top,
+                             int bottom,
+                             int right,
+                             int[] topRow,
+                             long memoryBudget,
+                             Subsequence subsequence) {
+        if (top == bottom || right == 0) {
+            return right;
+        }
+        if (bottom - top == 1 || blockBytes(bottom - top, right) <= Math.min(memoryBudget, MAX_BLOCK_BYTES)) {
+            return traceBlock(words1, words2, top, bottom, right, topRow, subsequence);
+        }
+
+        int middle = (top + bottom) >>> 1;
+        int[] middleRow = forwardRows(words1, words2, top, middle, right, topRow);
+        int column = solve(words1, words2, middle, bottom, right, middleRow, memoryBudget, subsequence);
+        return solve(words1, words2, top, middle, column, topRow, memoryBudget, subsequence);
+    }
+
+    /**
+     * Advance the DP from row top to row target over columns 0..right using two rows
+     *
+     * @param words1 {@link Integer[]} word ids of the first text
+     * @param words2 {@link Integer[]} word ids of the second text
+     * @param top    {@link Integer} row whose values are in topRow
+     * @param target {@link Integer} row to compute
+     * @param right  {@link Integer} last column to compute
+     * @param topRow {@link Integer[]} dp[top][0..right]
+     * @return {@link Integer[]} dp[target][0..right]
+     */
+    private static int[] forwardRows(int[] words1, int[] words2, int top, int target, int right, int[] topRow) {
+        int[] previous = new int[right + 1];
+        int[] current = new int[right + 1];
+        System.arraycopy(topRow, 0, previous, 0, right + 1);
+        for (int i = top + 1; i <= target; i++) {
+            int word = words1[i - 1];
+            for (int j = 1; j <= right; j++) {
+                if (word == words2[j - 1]) {
+                    current[j] = previous[j - 1] + 1;
+                } else {
+                    current[j] = Math.max(previous[j], current[j - 1]);
+                }
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous;
+    }
+
+    /**
+     * Fill the traceback directions of a subproblem that fits in the budget, then walk them back iteratively.
+     * The direction of a cell is the step the backtrack would take from it: diagonal on a match, otherwise up
+     * when dp[i - 1][j] already holds the cell's value, otherwise left
+     *
+     * @param words1      {@link Integer[]} word ids of the first text
+     * @param words2      {@link Integer[]} word ids of the second text
+     * @param top         {@link Integer} first row of the block, whose values are in topRow
+     * @param bottom      {@link Integer} row the path starts from
+     * @param right       {@link Integer} column the path starts from
+     * @param topRow      {@link Integer[]} dp[top][0..right]
+     * @param subsequence {@link Subsequence} collects the matched word ids
+     * @return {@link Integer} column at which the path reaches row top
+     */
+    private static int traceBlock(int[] words1,
+                                  int[] words2,
+                                  int top,
+                                  int bottom,
+                                  int right,
+                                  int[] topRow,
+                                  Subsequence subsequence) {
+        int rows = bottom - top;
+        long[] directions = new long[(int) (((long) rows * right + CELLS_PER_WORD - 1) / CELLS_PER_WORD)];
+        int[] previous = new int[right + 1];
+        int[] current = new int[right + 1];
+        System.arraycopy(topRow, 0, previous, 0, right + 1);
+        long cell = 0;
+        for (int r = 1; r <= rows; r++) {
+            int word = words1[top + r - 1];
+            for (int j = 1; j <= right; j++, cell++) {
+                int direction;
+                if (word == words2[j - 1]) {
+                    current[j] = previous[j - 1] + 1;
+                    direction = DIAGONAL;
+                } else if (previous[j] >= current[j - 1]) {
+                    current[j] = previous[j];
+                    direction = UP;
+                } else {
+                    current[j] = current[j - 1];
+                    direction = LEFT;
+                }
+                directions[(int) (cell / CELLS_PER_WORD)] |= (long) direction << (2 * (cell % CELLS_PER_WORD));
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+
+        int r = rows;
+        int j = right;
+        while (r > 0 && j > 0) {
+            long index = (long) (r - 1) * right + (j - 1);
+            int direction = (int) (directions[(int) (index / CELLS_PER_WORD)] >>> (2 * (index % CELLS_PER_WORD))) & 3;
+            if (direction == DIAGONAL) {
+                subsequence.add(words1[top + r - 1]);
+                r--;
+                j--;
+            } else if (direction == UP) {
+                r--;
+            } else {
+                j--;
+            }
+        }
+        return j;
+    }
+
+    /**
+     * Growable list of the matched word ids, in the order the traceback finds them
+     */
+    private static final class Subsequence {
+        private int[] ids = new int[16];
+        private int size;
+
+        private void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+    }
+}
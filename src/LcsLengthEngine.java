@@ -0,0 +1,120 @@
+/*
+ * File: LcsLengthEngine
+ * Created On: 18-10-2026
+ */
+
+import java.util.Arrays;
+
+/**
+ * Length of the word-level longest common subsequence, computed bit-parallel in the style of Allison and Dix
+ * (1986) with the formulation of Hyyro (2004): a column of the LCS table is a bit vector V over the words of the
+ * second document, and one word x of the first document updates it as
+ * {@code U = V & M[x]; V = (V + U) | (V - U)}, where M[x] marks the positions of x in the second document. The
+ * LCS length is the number of zero bits left in V. That is 64 table cells per {@code long} and no table at all,
+ * so it answers whether a pair reaches the minimum sequence length before any traceback is paid for.
+ * <p>
+ * The match masks come from {@link Occurrences}, the positions of every distinct word, built once per document.
+ * A word that does not occur in the second document leaves V unchanged, so its row is skipped. For the others
+ * the mask is set from the position list, used, and cleared again, which keeps the memory at two vectors of
+ * m / 64 words instead of one mask per distinct word. Buffers are reused across calls, so one instance must not
+ * be shared between threads.
+ */
+final class LcsLengthEngine {
+
+    /**
+     * Positions of every distinct word of a document
+     *
+     * @param words     {@link Integer[]} distinct word ids, ascending
+     * @param offsets   {@link Integer[]} start of each word's positions, plus the end of the last word's
+     * @param positions {@link Integer[]} word offsets in the document, grouped by word and ascending within it
+     */
+    record Occurrences(int[] words, int[] offsets, int[] positions) {
+
+        /**
+         * @param tokens {@link Integer[]} interned words of a document
+         * @return {@link Occurrences} positions of every distinct word
+         */
+        static Occurrences of(int[] tokens) {
+            // (word << 32) | position, so sorting groups by word and keeps the positions ascending
+            long[] keyed = new long[tokens.length];
+            for (int i = 0; i < tokens.length; i++) {
+                keyed[i] = (long) tokens[i] << 32 | i;
+            }
+            Arrays.sort(keyed);
+            int[] words = new int[tokens.length];
+            int[] offsets = new int[tokens.length + 1];
+            int[] positions = new int[tokens.length];
+            int distinct = 0;
+            for (int i = 0; i < keyed.length; i++) {
+                int word = (int) (keyed[i] >>> 32);
+                if (distinct == 0 || words[distinct - 1] != word) {
+                    words[distinct] = word;
+                    offsets[distinct++] = i;
+                }
+                positions[i] = (int) keyed[i];
+            }
+            offsets[distinct] = tokens.length;
+            return new Occurrences(Arrays.copyOf(words, distinct), Arrays.copyOf(offsets, distinct + 1), positions);
+        }
+    }
+
+    // Bit vector V, bit j set while column j of the second document is not yet matched
+    private long[] vector = new long[0];
+    // Match mask of the current word of the first document
+    private long[] mask = new long[0];
+
+    /**
+     * Length of the longest common subsequence of two word lists
+     *
+     * @param first        {@link Integer[]} word ids of the first document
+     * @param second       {@link Occurrences} positions of the words of the second document
+     * @param secondLength {@link Integer} number of words of the second document
+     * @return {@link Integer} LCS length
+     */
+    int length(int[] first, Occurrences second, int secondLength) {
+        int blocks = (secondLength + Long.SIZE - 1) / Long.SIZE;
+        if (vector.length < blocks) {
+            vector = new long[blocks];
+            mask = new long[blocks];
+        }
+        long[] v = vector;
+        long[] m = mask;
+        Arrays.fill(v, 0, blocks, -1L);
+
+        int[] words = second.words();
+        int[] offsets = second.offsets();
+        int[] positions = second.positions();
+        for (int word : first) {
+            int slot = Arrays.binarySearch(words, word);
+            if (slot < 0) {
+                // no match mask, V stays as it is
+                continue;
+            }
+            for (int e = offsets[slot]; e < offsets[slot + 1]; e++) {
+                m[positions[e] >>> 6] |= 1L << positions[e];
+            }
+            long carry = 0;
+            for (int b = 0; b < blocks; b++) {
+                long u = v[b] & m[b];
+                // V - U never borrows because U is a subset of V, so it is V & ~U
+                long sum = v[b] + u + carry;
+                carry = Long.compareUnsigned(sum, v[b]) < 0 || (carry != 0 && sum == v[b]) ? 1 : 0;
+                v[b] = sum | (v[b] & ~u);
+            }
+            for (int e = offsets[slot]; e < offsets[slot + 1]; e++) {
+                m[positions[e] >>> 6] = 0;
+            }
+        }
+
+        int unmatched = 0;
+        for (int b = 0; b < blocks; b++) {
+            long bits = v[b];
+            if (b == blocks - 1 && secondLength % Long.SIZE != 0) {
+                // bits past the last word are not part of the table
+                bits &= (1L << secondLength) - 1;
+            }
+            unmatched += Long.bitCount(bits);
+        }
+        return secondLength - unmatched;
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * File: LengthSweep
+ * Created On: 18-10-2026
+ */
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Candidate generation by length alone. The edit distance of two texts is at least the difference of their
+ * lengths, so the similarity 1 - distance / maxLen is at most minLen / maxLen. A pair whose length difference
+ * already exceeds the largest distance the threshold allows can never be reported.
+ * <p>
+ * The documents are sorted by preprocessed length. Each one is paired only with the longer documents that follow
+ * it while the length difference still fits within the allowed distance of the longer text. That allowance grows
+ * more slowly than the difference, so the first longer document that fails ends the window. The pairs outside
+ * the windows are never enumerated; they are counted as pruned.
+ */
+final class LengthSweep implements CandidateGenerator {
+
+    // Largest edit distance that still passes the threshold, by length of the longer text
+    private final IntUnaryOperator maxEditDistance;
+
+    // Statistics of the last run
+    private long candidateCount;
+    private long pairCount;
+
+    /**
+     * @param maxEditDistance {@link IntUnaryOperator} largest qualifying edit distance for a given longer length
+     */
+    LengthSweep(IntUnaryOperator maxEditDistance) {
+        this.maxEditDistance = maxEditDistance;
+    }
+
+    @Override
+    public long[] candidates(List<Document> documents) {
+        int n = documents.size();
+        // (length << 32) | index, so sorting orders by length and keeps the index
+        long[] byLength = new long[n];
+        for (int d = 0; d < n; d++) {
+            byLength[d] = (long) documents.get(d).text().length() << 32 | d;
+        }
+        Arrays.sort(byLength);
+
+        PairList pairs = new PairList();
+        for (int a = 0; a < n; a++) {
+            int shorter = (int) (byLength[a] >>> 32);
+            for (int b = a + 1; b < n; b++) {
+                int longer = (int) (byLength[b] >>> 32);
+                if (longer - shorter > maxEditDistance.applyAsInt(longer)) {
+                    break;
+                }
+                pairs.add((int) byLength[a], (int) byLength[b]);
+            }
+        }
+
+        long[] candidates = pairs.toSortedArray();
+        candidateCount = candidates.length;
+        pairCount = (long) n * (n - 1) / 2;
+        return candidates;
+    }
+
+    @Override
+    public String report() {
+        return String.format("Length sweep kept %d of %d pair(s), pruned %d by length ratio",
+                             candidateCount,
+                             pairCount,
+                             pairCount - candidateCount);
+    }
+}
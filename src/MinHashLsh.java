@@ -0,0 +1,170 @@
+/*
+ * File: MinHashLsh
+ * Created On: 18-10-2026
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Candidate generation with MinHash signatures and banded locality sensitive hashing.
+ * <p>
+ * Each document is reduced to the set of its word shingles ({@link #SHINGLE_WORDS} consecutive preprocessed
+ * words) and summarised by {@code bands * rows} MinHash values. For two documents with shingle Jaccard
+ * similarity s, each MinHash agrees with probability s. The signatures are cut into bands of rows values and
+ * two documents become candidates when any band matches completely. That happens with probability
+ * {@code 1 - (1 - s^rows)^bands}.
+ * <p>
+ * The band layout is derived from a target similarity t and a recall. Among all layouts within
+ * {@link #MAX_HASHES} MinHash values that catch a pair at similarity t with at least the requested recall,
+ * the one with the most rows per band wins, because it has the steepest S curve and so the fewest false
+ * candidates. This stage is probabilistic: a pair above the target is missed with probability at most
+ * 1 - recall.
+ */
+final class MinHashLsh implements CandidateGenerator {
+
+    // Words per shingle
+    static final int SHINGLE_WORDS = 3;
+    // Upper bound on bands * rows, i.e. the signature length
+    static final int MAX_HASHES = 256;
+
+    // Stable word hashes, so signatures do not depend on interning order
+    private final TokenDictionary dictionary;
+    // Target shingle Jaccard similarity and the recall wanted at it
+    private final double threshold;
+    private final double recall;
+    // Band layout derived from threshold and recall
+    private final int bands;
+    private final int rows;
+    // One seed per MinHash function
+    private final long[] seeds;
+
+    // Statistics of the last run
+    private long candidateCount;
+    private long pairCount;
+
+    /**
+     * @param dictionary {@link TokenDictionary} dictionary the document tokens come from
+     * @param threshold  {@link Double} shingle Jaccard similarity that should become a candidate
+     * @param recall     {@link Double} probability that a pair at exactly that similarity becomes a candidate
+     */
+    MinHashLsh(TokenDictionary dictionary, double threshold, double recall) {
+        this.dictionary = dictionary;
+        this.threshold = threshold;
+        this.recall = recall;
+        int[] layout = bandLayout(threshold, recall, MAX_HASHES);
+        this.bands = layout[0];
+        this.rows = layout[1];
+        this.seeds = new long[bands * rows];
+        long seed = 0x5DEECE66DL;
+        for (int h = 0; h < seeds.length; h++) {
+            seed += 0x9E3779B97F4A7C15L;
+            seeds[h] = TokenDictionary.mix64(seed);
+        }
+    }
+
+    /**
+     * Pick the band layout for a target similarity and recall
+     *
+     * @param threshold {@link Double} target similarity t in (0, 1]
+     * @param recall    {@link Double} wanted candidate probability at t, in (0, 1)
+     * @param maxHashes {@link Integer} largest allowed bands * rows
+     * @return {@link Integer[]} {bands, rows}
+     */
+    static int[] bandLayout(double threshold, double recall, int maxHashes) {
+        int bestBands = maxHashes;
+        int bestRows = 1;
+        for (int r = 1; r <= maxHashes; r++) {
+            double bandHit = Math.pow(threshold, r);
+            int b;
+            if (bandHit >= 1) {
+                b = 1;
+            } else {
+                // 1 - (1 - t^r)^b >= recall  <=>  b >= log(1 - recall) / log(1 - t^r)
+                double needed = Math.log(1 - recall) / Math.log1p(-bandHit);
+                if (Double.isNaN(needed) || needed > maxHashes) {
+                    break;
+                }
+                b = Math.max(1, (int) Math.ceil(needed));
+            }
+            if ((long) b * r > maxHashes) {
+                break;
+            }
+            bestBands = b;
+            bestRows = r;
+        }
+        return new int[]{bestBands, bestRows};
+    }
+
+    /**
+     * MinHash signature of a document's shingle set
+     *
+     * @param tokens {@link Integer[]} interned words of the document
+     * @return {@link Long[]} one minimum per hash function
+     */
+    long[] signature(int[] tokens) {
+        long[] signature = new long[seeds.length];
+        Arrays.fill(signature, Long.MAX_VALUE);
+        int shingles = Math.max(1, tokens.length - SHINGLE_WORDS + 1);
+        for (int p = 0; p < shingles && tokens.length > 0; p++) {
+            long shingle = 0;
+            for (int w = p; w < Math.min(tokens.length, p + SHINGLE_WORDS); w++) {
+                shingle = shingle * 0x9E3779B97F4A7C15L + dictionary.tokenHash(tokens[w]);
+            }
+            for (int h = 0; h < seeds.length; h++) {
+                long value = TokenDictionary.mix64(shingle ^ seeds[h]);
+                if (value < signature[h]) {
+                    signature[h] = value;
+                }
+            }
+        }
+        return signature;
+    }
+
+    @Override
+    public long[] candidates(List<Document> documents) {
+        int n = documents.size();
+        long[][] signatures = new long[n][];
+        for (int d = 0; d < n; d++) {
+            signatures[d] = signature(documents.get(d).tokens());
+        }
+
+        PairList pairs = new PairList();
+        for (int band = 0; band < bands; band++) {
+            Map<Long, List<Integer>> buckets = new HashMap<>();
+            for (int d = 0; d < n; d++) {
+                long key = band;
+                for (int r = band * rows; r < (band + 1) * rows; r++) {
+                    key = TokenDictionary.mix64(key * 0x9E3779B97F4A7C15L + signatures[d][r]);
+                }
+                buckets.computeIfAbsent(key, k -> new ArrayList<>()).add(d);
+            }
+            for (List<Integer> bucket : buckets.values()) {
+                for (int a = 0; a < bucket.size(); a++) {
+                    for (int b = a + 1; b < bucket.size(); b++) {
+                        pairs.add(bucket.get(a), bucket.get(b));
+                    }
+                }
+            }
+        }
+
+        long[] candidates = pairs.toSortedArray();
+        candidateCount = candidates.length;
+        pairCount = (long) n * (n - 1) / 2;
+        return candidates;
+    }
+
+    @Override
+    public String report() {
+        return String.format("MinHash LSH kept %d of %d pair(s) (%d bands x %d rows, Jaccard %.2f at recall %.2f)",
+                             candidateCount,
+                             pairCount,
+                             bands,
+                             rows,
+                             threshold,
+                             recall);
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * File: PairPrefilter
+ * Created On: 18-10-2026
+ */
+
+/**
+ * Cheap lower bounds that can prove a document pair cannot be reported before any DP table is allocated.
+ * Each document is summarised once into a {@link Profile} in one linear pass; comparing two profiles is a walk
+ * over fixed-size count arrays and a merge of the distinct words.
+ * The bounds used are:
+ * <ul>
+ *     <li>length: edit distance >= |n - m|</li>
+ *     <li>character histogram: one edit changes the histogram L1 distance by at most 2, so
+ *     edit distance >= ceil(L1 / 2)</li>
+ *     <li>q-gram profile: one edit destroys at most q q-grams and creates at most q, so
+ *     edit distance >= ceil(L1 / 2q)</li>
+ *     <li>common words: the word-level LCS cannot be longer than the multiset intersection of both word lists</li>
+ * </ul>
+ * A rejection counter is kept per filter so a run can report how much work each one saved. The counters are not
+ * synchronized; parallel callers use one instance per task and {@link #merge(PairPrefilter)} them.
+ */
+final class PairPrefilter {
+
+    // Length of the character q-grams; three 16 bit chars pack exactly into one long
+    static final int Q = 3;
+    // Bits of the packed q-gram, the older chars shifted above them are dropped
+    private static final long QGRAM_MASK = (1L << (Q * Character.SIZE)) - 1;
+    // Character histogram buckets, plain ASCII gets one bucket per character
+    private static final int CHARACTER_BUCKETS = 128;
+    // Fewest and most q-gram profile buckets, powers of two; in between a profile gets one to two per q-gram
+    private static final int MIN_QGRAM_BUCKETS = 64;
+    private static final int MAX_QGRAM_BUCKETS = 1 << 16;
+
+    /**
+     * Filters in the order they are tried, cheapest first
+     */
+    enum Filter {
+        LENGTH("length difference"),
+        CHARACTER_HISTOGRAM("character histogram"),
+        QGRAM_PROFILE(Q + "-gram profile"),
+        COMMON_WORDS("common words");
+
+        private final String description;
+
+        Filter(String description) {
+            this.description = description;
+        }
+    }
+
+    /**
+     * Per-document summary the filters work on: character and q-gram counts hashed into buckets, and the distinct
+     * words with their positions. Characters or q-grams sharing a bucket can only hide differences, never add any,
+     * so the bucketed L1 distances stay lower bounds of the exact ones. The q-gram buckets are a power of two that
+     * grows with the text, so two profiles of different sizes are compared by folding the larger one
+     *
+     * @param length         {@link Integer} number of characters of the preprocessed text
+     * @param characterCount {@link Integer[]} occurrences per character bucket
+     * @param qgramCount     {@link Integer[]} occurrences per q-gram bucket
+     * @param words          {@link LcsLengthEngine.Occurrences} positions of every distinct word of the document
+     */
+    record Profile(int length,
+                   int[] characterCount,
+                   int[] qgramCount,
+                   LcsLengthEngine.Occurrences words) {
+
+        /**
+         * Build the profile of a preprocessed text in one pass over its characters
+         *
+         * @param text  {@link String} preprocessed text
+         * @param words {@link LcsLengthEngine.Occurrences} positions of the interned words of the text, shared
+         *              with the document rather than copied
+         * @return {@link Profile} summary of the text
+         */
+        static Profile of(String text, LcsLengthEngine.Occurrences words) {
+            int[] characterCount = new int[CHARACTER_BUCKETS];
+            int[] qgramCount = new int[Math.clamp(2 * Integer.highestOneBit(Math.max(1, text.length())),
+                                                  MIN_QGRAM_BUCKETS,
+                                                  MAX_QGRAM_BUCKETS)];
+            long code = 0;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                characterCount[c & (CHARACTER_BUCKETS - 1)]++;
+                code = (code << Character.SIZE) | c;
+                if (i >= Q - 1) {
+                    qgramCount[(int) TokenDictionary.mix64(code & QGRAM_MASK) & (qgramCount.length - 1)]++;
+                }
+            }
+            return new Profile(text.length(), characterCount, qgramCount, words);
+        }
+    }
+
+    // Number of pairs rejected by each filter
+    private final long[] rejected = new long[Filter.values().length];
+    // Number of pairs offered to the prefilter
+    private long examined;
+
+    /**
+     * Try every filter on a pair and count the first one that rejects it
+     *
+     * @param first             {@link Profile} profile of the first document
+     * @param second            {@link Profile} profile of the second document
+     * @param maxDistance       {@link Integer} largest edit distance that still reaches the similarity threshold
+     * @param minSequenceLength {@link Integer} shortest common word sequence that is reported
+     * @return {@link Boolean} true if the pair can be skipped without running any DP
+     */
+    boolean reject(Profile first, Profile second, int maxDistance, int minSequenceLength) {
+        examined++;
+        Filter filter = rejectingFilter(first, second, maxDistance, minSequenceLength);
+        if (filter == null) {
+            return false;
+        }
+        rejected[filter.ordinal()]++;
+        return true;
+    }
+
+    /**
+     * Find the first filter that proves the pair cannot be reported
+     *
+     * @param first             {@link Profile} profile of the first document
+     * @param second            {@link Profile} profile of the second document
+     * @param maxDistance       {@link Integer} largest edit distance that still reaches the similarity threshold
+     * @param minSequenceLength {@link Integer} shortest common word sequence that is reported
+     * @return {@link Filter} the rejecting filter, null if the pair survives all of them
+     */
+    static Filter rejectingFilter(Profile first, Profile second, int maxDistance, int minSequenceLength) {
+        if (Math.abs(first.length() - second.length()) > maxDistance) {
+            return Filter.LENGTH;
+        }
+        // ceil(L1 / 2) > k  <=>  L1 > 2k
+        long histogramLimit = 2L * maxDistance;
+        if (countDistance(first.characterCount(), second.characterCount(), histogramLimit) > histogramLimit) {
+            return Filter.CHARACTER_HISTOGRAM;
+        }
+        // ceil(L1 / 2q) > k  <=>  L1 > 2qk
+        long qgramLimit = 2L * Q * maxDistance;
+        if (countDistance(first.qgramCount(), second.qgramCount(), qgramLimit) > qgramLimit) {
+            return Filter.QGRAM_PROFILE;
+        }
+        if (commonWords(first.words(), second.words(), minSequenceLength) < minSequenceLength) {
+            return Filter.COMMON_WORDS;
+        }
+        return null;
+    }
+
+    /**
+     * L1 distance of two bucketed count profiles, stopping once it exceeds the limit. Bucket b of the smaller
+     * profile is compared with the sum of buckets b, b + size, b + 2 size ... of the larger one, which is the
+     * bucket the smaller size would have put their entries in
+     *
+     * @param counts1 {@link Integer[]} bucket counts of the first document, a power of two of them
+     * @param counts2 {@link Integer[]} bucket counts of the second document, a power of two of them
+     * @param limit   {@link Long} value above which the exact distance no longer matters
+     * @return {@link Long} the L1 distance, or some value above limit
+     */
+    private static long countDistance(int[] counts1, int[] counts2, long limit) {
+        int[] small = counts1.length <= counts2.length ? counts1 : counts2;
+        int[] large = small == counts1 ? counts2 : counts1;
+        long distance = 0;
+        for (int b = 0; b < small.length && distance <= limit; b++) {
+            long folded = 0;
+            for (int f = b; f < large.length; f += small.length) {
+                folded += large[f];
+            }
+            distance += Math.abs(small[b] - folded);
+        }
+        return distance;
+    }
+
+    /**
+     * Size of the multiset intersection of two documents' words, stopping once it reaches the target
+     *
+     * @param words1 {@link LcsLengthEngine.Occurrences} distinct words of the first document with their positions
+     * @param words2 {@link LcsLengthEngine.Occurrences} distinct words of the second document with their positions
+     * @param target {@link Integer} count after which the exact size no longer matters
+     * @return {@link Integer} the intersection size, or some value of at least target
+     */
+    private static int commonWords(LcsLengthEngine.Occurrences words1,
+                                   LcsLengthEngine.Occurrences words2,
+                                   int target) {
+        int[] w1 = words1.words();
+        int[] w2 = words2.words();
+        int[] o1 = words1.offsets();
+        int[] o2 = words2.offsets();
+        int common = 0;
+        int i = 0;
+        int j = 0;
+        while (i < w1.length && j < w2.length && common < target) {
+            if (w1[i] < w2[j]) {
+                i++;
+            } else if (w1[i] > w2[j]) {
+                j++;
+            } else {
+                common += Math.min(o1[i + 1] - o1[i], o2[j + 1] - o2[j]);
+                i++;
+                j++;
+            }
+        }
+        return common;
+    }
+
+    /**
+     * Add the counters of another prefilter, e.g. one used by a parallel task
+     *
+     * @param other {@link PairPrefilter} prefilter whose counts are added
+     */
+    void merge(PairPrefilter other) {
+        examined += other.examined;
+        for (int f = 0; f < rejected.length; f++) {
+            rejected[f] += other.rejected[f];
+        }
+    }
+
+    /**
+     * Summary line of how many pairs each filter removed
+     *
+     * @return {@link String} human readable report
+     */
+    String report() {
+        long total = 0;
+        StringBuilder details = new StringBuilder();
+        for (Filter filter : Filter.values()) {
+            total += rejected[filter.ordinal()];
+            details.append(details.isEmpty() ? "" : ", ")
+                   .append(filter.description)
+                   .append(' ')
+                   .append(rejected[filter.ordinal()]);
+        }
+        return String.format("Prefilter rejected %d of %d pair(s): %s", total, examined, details);
+    }
+}
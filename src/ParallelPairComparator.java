@@ -0,0 +1,242 @@
+/*
+ * File: ParallelPairComparator
+ * Created On: 18-10-2026
+ */
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Compares all document pairs (i < j) on a {@link ForkJoinPool} and reports them in the same order as the
+ * sequential nested loop.
+ * <p>
+ * The upper triangular pair space is numbered row by row. It is processed in windows of {@link #WINDOW_PAIRS}
+ * pairs so memory stays bounded however many documents there are. Inside a window the index range is split in
+ * halves until a leaf holds at most {@link #LEAF_PAIRS} pairs, and the pool's work stealing balances the uneven
+ * pair costs. Every pair writes its result into its own slot of the window array, and every leaf counts
+ * prefilter rejections in its own {@link PairPrefilter}, merged on join. No lock or shared counter is touched
+ * while comparing. Once a window is complete its results go to the sink in index order.
+ * <p>
+ * When a {@link CandidateGenerator} has already narrowed the pairs down, the same windows run over the sorted
+ * candidate array instead of the triangular numbering, and only the candidates are reported.
+ */
+final class ParallelPairComparator {
+
+    // Pairs compared by one leaf task
+    private static final int LEAF_PAIRS = 64;
+    // Pairs whose results are buffered before they are handed to the sink in order
+    private static final int WINDOW_PAIRS = 1 << 16;
+
+    /**
+     * Detailed comparison of one pair
+     */
+    @FunctionalInterface
+    interface PairCheck {
+        /**
+         * @param first     {@link Document} document with the lower index
+         * @param second    {@link Document} document with the higher index
+         * @param prefilter {@link PairPrefilter} prefilter of the calling task, for its rejection counters
+         * @return {@link ComparisonResult} outcome of the pair
+         */
+        ComparisonResult compare(Document first, Document second, PairPrefilter prefilter);
+    }
+
+    /**
+     * Receives the result of every compared pair, on the calling thread and in order
+     */
+    @FunctionalInterface
+    interface PairSink {
+        /**
+         * @param first  {@link Integer} index of the first document of the pair
+         * @param second {@link Integer} index of the second document of the pair
+         * @param result {@link ComparisonResult} outcome of the pair
+         */
+        void accept(int first, int second, ComparisonResult result);
+    }
+
+    // Worker threads of the pool
+    private final int threads;
+
+    /**
+     * @param threads {@link Integer} number of worker threads, at least 1
+     */
+    ParallelPairComparator(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Compare every pair i < j of the documents
+     *
+     * @param documents {@link List<Document>} documents to compare
+     * @param check     {@link PairCheck} detailed comparison of one pair
+     * @param sink      {@link PairSink} receives the results in sequential loop order
+     * @return {@link PairPrefilter} prefilter statistics of all pairs
+     */
+    PairPrefilter compareAll(List<Document> documents, PairCheck check, PairSink sink) {
+        int n = documents.size();
+        return compare(documents, null, (long) n * (n - 1) / 2, check, sink);
+    }
+
+    /**
+     * Compare only the given candidate pairs of the documents
+     *
+     * @param documents  {@link List<Document>} documents to compare
+     * @param candidates {@link Long[]} packed pairs from {@link CandidateGenerator#candidates(List)}, sorted
+     * @param check      {@link PairCheck} detailed comparison of one pair
+     * @param sink       {@link PairSink} receives the results in candidate order
+     * @return {@link PairPrefilter} prefilter statistics of the candidate pairs
+     */
+    PairPrefilter compareCandidates(List<Document> documents, long[] candidates, PairCheck check, PairSink sink) {
+        return compare(documents, candidates, candidates.length, check, sink);
+    }
+
+    /**
+     * Compare pairs window by window and hand the results to the sink in index order
+     *
+     * @param documents  {@link List<Document>} documents to compare
+     * @param candidates {@link Long[]} packed pairs to compare, null for every pair i < j
+     * @param pairs      {@link Long} number of pairs to compare
+     * @param check      {@link PairCheck} detailed comparison of one pair
+     * @param sink       {@link PairSink} receives the results
+     * @return {@link PairPrefilter} prefilter statistics of the compared pairs
+     */
+    private PairPrefilter compare(List<Document> documents,
+                                  long[] candidates,
+                                  long pairs,
+                                  PairCheck check,
+                                  PairSink sink) {
+        int n = documents.size();
+        PairPrefilter statistics = new PairPrefilter();
+        ComparisonResult[] window = new ComparisonResult[(int) Math.min(pairs, WINDOW_PAIRS)];
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            for (long start = 0; start < pairs; start += WINDOW_PAIRS) {
+                int size = (int) Math.min(WINDOW_PAIRS, pairs - start);
+                statistics.merge(pool.invoke(new CompareTask(documents, candidates, check, window, start, 0, size)));
+                int i = candidates == null ? rowOf(n, start) : 0;
+                int j = candidates == null ? (int) (i + 1 + start - rowStart(n, i)) : 0;
+                for (int k = 0; k < size; k++) {
+                    if (candidates != null) {
+                        long pair = candidates[(int) (start + k)];
+                        sink.accept(CandidateGenerator.first(pair), CandidateGenerator.second(pair), window[k]);
+                    } else {
+                        sink.accept(i, j, window[k]);
+                        if (++j == n) {
+                            i++;
+                            j = i + 1;
+                        }
+                    }
+                    window[k] = null;
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return statistics;
+    }
+
+    /**
+     * Index of the first pair of row i in the row by row numbering of the pairs of n documents
+     *
+     * @param n {@link Integer} number of documents
+     * @param i {@link Integer} row
+     * @return {@link Long} index of pair (i, i + 1)
+     */
+    static long rowStart(int n, int i) {
+        return (long) i * (2L * n - i - 1) / 2;
+    }
+
+    /**
+     * Row containing a pair index, by binary search over {@link #rowStart(int, int)}
+     *
+     * @param n     {@link Integer} number of documents
+     * @param index {@link Long} pair index
+     * @return {@link Integer} row i with rowStart(i) <= index < rowStart(i + 1)
+     */
+    static int rowOf(int n, long index) {
+        int low = 0;
+        int high = n - 2;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (rowStart(n, middle) <= index) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Compares a contiguous range of pair indices of one window, splitting it while it is large
+     * <p>
+     * Serializable only through {@link RecursiveTask}; tasks never leave the pool, so they are never serialized
+     */
+    @SuppressWarnings("serial")
+    private static final class CompareTask extends RecursiveTask<PairPrefilter> {
+
+        private final List<Document> documents;
+        // Packed pairs to compare, null for every pair i < j
+        private final long[] candidates;
+        private final PairCheck check;
+        private final ComparisonResult[] window;
+        // Pair index of window[0]
+        private final long windowStart;
+        // Range of window slots this task fills
+        private final int from;
+        private final int to;
+
+        private CompareTask(List<Document> documents,
+                            long[] candidates,
+                            PairCheck check,
+                            ComparisonResult[] window,
+                            long windowStart,
+                            int from,
+                            int to) {
+            this.documents = documents;
+            this.candidates = candidates;
+            this.check = check;
+            this.window = window;
+            this.windowStart = windowStart;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected PairPrefilter compute() {
+            if (to - from > LEAF_PAIRS) {
+                int middle = (from + to) >>> 1;
+                CompareTask left = new CompareTask(documents, candidates, check, window, windowStart, from, middle);
+                CompareTask right = new CompareTask(documents, candidates, check, window, windowStart, middle, to);
+                left.fork();
+                PairPrefilter statistics = right.compute();
+                statistics.merge(left.join());
+                return statistics;
+            }
+
+            PairPrefilter statistics = new PairPrefilter();
+            if (candidates != null) {
+                for (int slot = from; slot < to; slot++) {
+                    long pair = candidates[(int) (windowStart + slot)];
+                    window[slot] = check.compare(documents.get(CandidateGenerator.first(pair)),
+                                                 documents.get(CandidateGenerator.second(pair)),
+                                                 statistics);
+                }
+                return statistics;
+            }
+            int n = documents.size();
+            long index = windowStart + from;
+            int i = rowOf(n, index);
+            int j = (int) (i + 1 + index - rowStart(n, i));
+            for (int slot = from; slot < to; slot++) {
+                window[slot] = check.compare(documents.get(i), documents.get(j), statistics);
+                if (++j == n) {
+                    i++;
+                    j = i + 1;
+                }
+            }
+            return statistics;
+        }
+    }
+}
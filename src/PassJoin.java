@@ -0,0 +1,341 @@
+/*
+ * File: PassJoin
+ * Created On: 18-10-2026
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Edit distance similarity join in the style of Pass-Join (Li, Deng, Wang and Feng), producing every pair whose
+ * character level edit distance can stay within the threshold's allowance.
+ * <p>
+ * Documents are visited from the longest to the shortest. Every visited document r of length L is split into
+ * tau(L) + 1 even segments, tau(L) being its own allowance, which is exactly the allowance of any pair in which
+ * r is the longer text. If a shorter text s of length l is within tau(L) edits of r, at least one segment of r is
+ * left untouched by an optimal alignment (pigeonhole) and occurs in s. That occurrence is shifted by x with
+ * |x| + |(L - l) + x| <= tau(L), which bounds the positions worth probing. Taking the segment whose left part
+ * holds at most one edit per earlier segment narrows this further to |x| <= i and |(L - l) + x| <= tau(L) - i for
+ * segment i (multi-match-aware selection), about (tau^2 - (L - l)^2) / 2 substrings per length group. Each new
+ * document s probes only those positions, for every length group of the longer documents it can still pair with,
+ * against the segment index of the documents visited before it. Only documents hit by a probe are paired with s.
+ * The longest partner length is found in closed form from the threshold: L - l <= (1 - t) * L holds up to
+ * L = l / t.
+ * <p>
+ * Segments are about 1 / (1 - t) characters long, so the join only applies above a threshold of
+ * 1 - 1 / {@link #MIN_SEGMENT_CHARS}, see {@link #applies(double)}. Below that every segment would be shorter than
+ * {@link #MIN_SEGMENT_CHARS} and occur in almost every text. A document whose segments are still too short, or
+ * whose probes would cost more than the banded edit distance of every length compatible pair they could save,
+ * falls back to the length window. Probing cost does not grow with the corpus but the window does, so the join
+ * pays off on large corpora at high thresholds.
+ */
+final class PassJoin implements CandidateGenerator {
+
+    // Shortest segment worth indexing, shorter ones occur in almost every text
+    static final int MIN_SEGMENT_CHARS = 4;
+    // Rough cost of one segment lookup (substring hash and index probe) in 64 bit words of bit-parallel DP work
+    private static final int LOOKUP_WORDS = 32;
+    // Multiplier of the polynomial substring hash
+    private static final long BASE = 0x100000001B3L;
+
+    // Similarity threshold the allowance comes from
+    private final double threshold;
+    // Largest edit distance that still passes the threshold, by length of the longer text
+    private final IntUnaryOperator maxEditDistance;
+
+    // Statistics of the last run
+    private long candidateCount;
+    private long pairCount;
+    private long lookups;
+    private int fallbackDocuments;
+
+    /**
+     * @param threshold       {@link Double} similarity threshold, see {@link #applies(double)}
+     * @param maxEditDistance {@link IntUnaryOperator} largest qualifying edit distance for a given longer length
+     */
+    PassJoin(double threshold, IntUnaryOperator maxEditDistance) {
+        this.threshold = threshold;
+        this.maxEditDistance = maxEditDistance;
+    }
+
+    /**
+     * Whether the join can partition documents at a threshold at all
+     *
+     * @param threshold {@link Double} similarity threshold
+     * @return {@link Boolean} true if long enough documents get segments of at least {@link #MIN_SEGMENT_CHARS}
+     */
+    static boolean applies(double threshold) {
+        return (1 - threshold) * MIN_SEGMENT_CHARS < 1;
+    }
+
+    @Override
+    public long[] candidates(List<Document> documents) {
+        int n = documents.size();
+        long[] byLength = new long[n];
+        int longest = 0;
+        for (int d = 0; d < n; d++) {
+            int length = documents.get(d).text().length();
+            byLength[d] = (long) length << 32 | d;
+            longest = Math.max(longest, length);
+        }
+        Arrays.sort(byLength);
+        long[] powers = new long[longest + 1];
+        powers[0] = 1;
+        for (int i = 1; i <= longest; i++) {
+            powers[i] = powers[i - 1] * BASE;
+        }
+
+        // visited documents by length, and the segment index over the partitioned ones
+        TreeMap<Integer, List<Integer>> visited = new TreeMap<>();
+        SegmentIndex segments = new SegmentIndex();
+        PairList pairs = new PairList();
+        lookups = 0;
+        fallbackDocuments = 0;
+        int[] seen = new int[n];
+        Arrays.fill(seen, -1);
+
+        for (int a = n - 1; a >= 0; a--) {
+            int document = (int) byLength[a];
+            String text = documents.get(document).text();
+            int length = text.length();
+            long[] prefix = prefixHashes(text);
+            NavigableMap<Integer, List<Integer>> window = visited.subMap(length, true, longestPartner(length), true);
+
+            int compatible = 0;
+            long cost = 0;
+            for (Map.Entry<Integer, List<Integer>> group : window.entrySet()) {
+                compatible += group.getValue().size();
+                int parts = partitions(group.getKey());
+                int shift = group.getKey() - length;
+                // (tau^2 - shift^2) / 2 + tau + 1 substrings for the multi-match-aware selection
+                cost += parts == 0 ? 0 : ((long) parts * (parts - 1) - (long) shift * shift) / 2 + parts;
+            }
+
+            // a banded edit distance of this length costs about length * (2 * allowance + 1) / 64 words
+            double pairWords = (double) length * (2L * maxEditDistance.applyAsInt(length) + 1) / Long.SIZE;
+            if (cost * LOOKUP_WORDS > compatible * pairWords) {
+                // probing would not pay off, pair with the whole length window
+                for (List<Integer> group : window.values()) {
+                    for (int other : group) {
+                        pairs.add(other, document);
+                    }
+                }
+            } else {
+                for (Map.Entry<Integer, List<Integer>> group : window.entrySet()) {
+                    int longer = group.getKey();
+                    int parts = partitions(longer);
+                    if (parts == 0) {
+                        // too short to partition, every document of this length is a candidate
+                        for (int other : group.getValue()) {
+                            pairs.add(other, document);
+                        }
+                        continue;
+                    }
+                    int allowance = parts - 1;
+                    int shift = longer - length;
+                    int lowShift = -Math.floorDiv(allowance + shift, 2);
+                    int highShift = Math.floorDiv(allowance - shift, 2);
+                    for (int part = 0; part < parts; part++) {
+                        int start = segmentStart(longer, parts, part);
+                        int size = segmentStart(longer, parts, part + 1) - start;
+                        // at most part edits before the segment and allowance - part after it
+                        int from = Math.max(Math.max(0, start + lowShift),
+                                            Math.max(start - part, start - shift - (allowance - part)));
+                        int to = Math.min(Math.min(length - size, start + highShift),
+                                          Math.min(start + part, start - shift + (allowance - part)));
+                        for (int q = from; q <= to; q++) {
+                            lookups++;
+                            long hash = prefix[q + size] - prefix[q] * powers[size];
+                            for (int p = segments.first(segmentKey(longer, part, hash)); p >= 0; p = segments.next(p)) {
+                                int other = segments.document(p);
+                                if (seen[other] != document) {
+                                    seen[other] = document;
+                                    pairs.add(other, document);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+
+            // index the document for the shorter ones still to come
+            int parts = partitions(length);
+            if (parts == 0) {
+                fallbackDocuments++;
+            }
+            for (int part = 0; part < parts; part++) {
+                int start = segmentStart(length, parts, part);
+                int size = segmentStart(length, parts, part + 1) - start;
+                long hash = prefix[start + size] - prefix[start] * powers[size];
+                segments.add(segmentKey(length, part, hash), document);
+            }
+            visited.computeIfAbsent(length, k -> new ArrayList<>()).add(document);
+        }
+
+        long[] candidates = pairs.toSortedArray();
+        candidateCount = candidates.length;
+        pairCount = (long) n * (n - 1) / 2;
+        return candidates;
+    }
+
+    /**
+     * Longest text a text of the given length can still pair with: L - l <= (1 - t) * L gives L <= l / t, which is
+     * corrected by a step or two against the exact allowance
+     *
+     * @param length {@link Integer} length of the shorter text
+     * @return {@link Integer} largest partner length
+     */
+    private int longestPartner(int length) {
+        int longer = (int) Math.min(Integer.MAX_VALUE - 1, Math.max(length, Math.floor(length / threshold)));
+        while (longer > length && longer - length > maxEditDistance.applyAsInt(longer)) {
+            longer--;
+        }
+        while (longer + 1 - length <= maxEditDistance.applyAsInt(longer + 1)) {
+            longer++;
+        }
+        return longer;
+    }
+
+    /**
+     * Number of segments a document is split into: one more than its own allowance, which is the allowance of
+     * every pair in which it is the longer text
+     *
+     * @param length {@link Integer} document length
+     * @return {@link Integer} segment count, 0 if the segments would be shorter than {@link #MIN_SEGMENT_CHARS}
+     */
+    private int partitions(int length) {
+        int parts = maxEditDistance.applyAsInt(length) + 1;
+        return length / parts >= MIN_SEGMENT_CHARS ? parts : 0;
+    }
+
+    /**
+     * Start of a segment in the even partition, the longer segments last
+     *
+     * @param length {@link Integer} document length
+     * @param parts  {@link Integer} segment count
+     * @param part   {@link Integer} segment, parts for the end of the document
+     * @return {@link Integer} offset of the segment
+     */
+    private static int segmentStart(int length, int parts, int part) {
+        int base = length / parts;
+        int shortParts = parts - length % parts;
+        return part * base + Math.max(0, part - shortParts);
+    }
+
+    /**
+     * Polynomial prefix hashes, so any substring hash is one subtraction and one multiplication
+     *
+     * @param text {@link String} text
+     * @return {@link Long[]} hash of every prefix, text.length() + 1 values
+     */
+    private static long[] prefixHashes(String text) {
+        long[] prefix = new long[text.length() + 1];
+        for (int i = 0; i < text.length(); i++) {
+            prefix[i + 1] = prefix[i] * BASE + text.charAt(i);
+        }
+        return prefix;
+    }
+
+    /**
+     * Index key of a segment. The length and segment number are mixed before the hash is added, since the hashes
+     * of short segments that differ in their last character are only a few apart
+     *
+     * @param length {@link Integer} length of the partitioned document
+     * @param part   {@link Integer} segment number
+     * @param hash   {@link Long} hash of the segment's characters
+     * @return {@link Long} key
+     */
+    private static long segmentKey(int length, int part, long hash) {
+        return TokenDictionary.mix64(hash + TokenDictionary.mix64((long) length << 32 | part));
+    }
+
+    @Override
+    public String report() {
+        return String.format("Pass-join kept %d of %d pair(s) (%d segment lookup(s), %d document(s) too short to "
+                             + "partition)",
+                             candidateCount,
+                             pairCount,
+                             lookups,
+                             fallbackDocuments);
+    }
+
+    /**
+     * Segment index in primitive arrays: open addressing over the segment keys, each slot heading a linked list of
+     * postings, the documents holding the segment
+     */
+    private static final class SegmentIndex {
+        // Slot keys, and the first posting of every slot, -1 for an empty slot
+        private long[] keys = new long[64];
+        private int[] heads = empty(64);
+        private int slotsUsed;
+        // Document and next posting of every posting, -1 at the end of a list
+        private int[] documents = new int[64];
+        private int[] next = new int[64];
+        private int postings;
+
+        private void add(long key, int document) {
+            if (2 * (slotsUsed + 1) > keys.length) {
+                grow();
+            }
+            int slot = slot(key);
+            if (heads[slot] < 0) {
+                keys[slot] = key;
+                slotsUsed++;
+            }
+            if (postings == documents.length) {
+                documents = Arrays.copyOf(documents, postings * 2);
+                next = Arrays.copyOf(next, postings * 2);
+            }
+            documents[postings] = document;
+            next[postings] = heads[slot];
+            heads[slot] = postings++;
+        }
+
+        private int first(long key) {
+            return heads[slot(key)];
+        }
+
+        private int next(int posting) {
+            return next[posting];
+        }
+
+        private int document(int posting) {
+            return documents[posting];
+        }
+
+        private int slot(long key) {
+            int mask = keys.length - 1;
+            // keys are mixed already, their low bits spread evenly
+            int slot = (int) key & mask;
+            while (heads[slot] >= 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldHeads = heads;
+            keys = new long[oldKeys.length * 2];
+            heads = empty(oldKeys.length * 2);
+            for (int s = 0; s < oldKeys.length; s++) {
+                if (oldHeads[s] >= 0) {
+                    int slot = slot(oldKeys[s]);
+                    keys[slot] = oldKeys[s];
+                    heads[slot] = oldHeads[s];
+                }
+            }
+        }
+
+        private static int[] empty(int size) {
+            int[] slots = new int[size];
+            Arrays.fill(slots, -1);
+            return slots;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+/*
+ * File: Passage
+ * Created On: 18-10-2026
+ */
+
+/**
+ * A run of words two documents have in common, in the same order and without gaps. Offsets count preprocessed
+ * words, i.e. positions in {@link Document#tokens()}
+ *
+ * @param firstStart  {@link Integer} offset of the passage in the first document
+ * @param secondStart {@link Integer} offset of the passage in the second document
+ * @param length      {@link Integer} number of words in the passage
+ */
+record Passage(int firstStart, int secondStart, int length) {
+
+    /**
+     * @return {@link Integer} one past the last word of the passage in the first document
+     */
+    int firstEnd() {
+        return firstStart + length;
+    }
+
+    /**
+     * @return {@link Integer} one past the last word of the passage in the second document
+     */
+    int secondEnd() {
+        return secondStart + length;
+    }
+}
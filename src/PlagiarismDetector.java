@@ -8,10 +8,12 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
-import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class PlagiarismDetector {
 
@@ -21,11 +23,41 @@ public class PlagiarismDetector {
     private static final int MIN_SEQUENCE_LENGTH = 5;
     // Set of common stop words
     private static final Set<String> STOP_WORDS = new HashSet<>(Set.of("the", "a", "an", "in", "on", "of", "for"));
+    // Word ids shared by every document of the run, so each document is split exactly once
+    private static final TokenDictionary TOKEN_DICTIONARY = new TokenDictionary();
+    // Per-thread tokenizer, so its output buffers are reused across documents; its stop word matcher is built from
+    // STOP_WORDS on first use, after main has loaded the stop word file
+    private static final ThreadLocal<Tokenizer> TOKENIZER = ThreadLocal.withInitial(
+            () -> new Tokenizer(StopWordMatcher.of(STOP_WORDS)));
+    // Passage finders for detected pairs; they keep no state between calls, so all threads share them
+    private static final GreedyStringTiling GREEDY_STRING_TILING = new GreedyStringTiling(MIN_SEQUENCE_LENGTH);
+    private static final SuffixArrayMatcher SUFFIX_ARRAY_MATCHER = new SuffixArrayMatcher(MIN_SEQUENCE_LENGTH);
+    // Per-thread edit distance engine, so its row buffers are reused across comparisons
+    private static final ThreadLocal<EditDistanceEngine> EDIT_DISTANCE_ENGINE = ThreadLocal.withInitial(EditDistanceEngine::new);
+    // Per-thread LCS length engine, so its bit vectors are reused across comparisons
+    private static final ThreadLocal<LcsLengthEngine> LCS_LENGTH_ENGINE = ThreadLocal.withInitial(LcsLengthEngine::new);
 
     public static void main(String[] args) {
         System.out.println();
-        if (args.length < 2) {
-            System.out.println("Usage: PlagiarismDetector <file1> <file2> ...");
+        DetectorOptions options;
+        try {
+            options = DetectorOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.out.println(DetectorOptions.USAGE);
+            return;
+        }
+        // against an index a single submission is enough, otherwise files are compared with each other
+        if (options.files().size() < (options.index() != null ? 1 : 2)) {
+            System.out.println(DetectorOptions.USAGE);
+            return;
+        }
+        // the pass-join segments are about 1 / (1 - t) characters long, too short to be selective at low thresholds
+        if (options.pairMode() == DetectorOptions.PairMode.PASSJOIN
+            && !PassJoin.applies(similarityThreshold(options))) {
+            System.err.println("--pairs=passjoin needs a --similarity above " + (1 - 1.0 / PassJoin.MIN_SEGMENT_CHARS)
+                               + ", use --pairs=length below that");
+            System.out.println(DetectorOptions.USAGE);
             return;
         }
 
@@ -36,69 +68,295 @@ public class PlagiarismDetector {
         } catch (Exception ignored) {
         }
 
-        // Store preprocessed file contents for comparison
-        List<String> preprocessedContents = new ArrayList<>();
-        for (String filePath : args) {
+        // Store preprocessed documents, split into interned word ids once, for comparison
+        List<Document> documents = new ArrayList<>();
+        DocumentReader reader = new DocumentReader(options.charset());
+        for (String filePath : options.files()) {
             try {
                 // reading, preprocessing and storing files
-                preprocessedContents.add(preprocessText(readFile(filePath)));
-            } catch (FileNotFoundException e) {
+                documents.add(preprocessText(filePath, reader));
+            } catch (NoSuchFileException e) {
                 System.err.println("File not found: " + filePath);
+            } catch (IOException e) {
+                System.err.println("Could not read " + filePath + ": " + e.getMessage());
             }
         }
 
-        // Compare text documents and detect potential plagiarism
-        for (int i = 0; i < preprocessedContents.size() - 1; i++) {
-            for (int j = i + 1; j < preprocessedContents.size(); j++) {
-                // get the similarity score between two texts
-                double similarity = calculateSimilarity(preprocessedContents.get(i), preprocessedContents.get(j));
-                // get the longest similar sequence
-                List<String> longestSimilarSequence = findLongestCommonSubsequence(preprocessedContents.get(i),
-                                                                                   preprocessedContents.get(j));
-
-                // if similarity is above threshold and similar sequence's length is greater than threshold -> Plagiarism Detected
-                // else No Plagiarism
-                if (similarity >= SIMILARITY_THRESHOLD && longestSimilarSequence.size() >= MIN_SEQUENCE_LENGTH) {
-                    System.out.printf("Potential plagiarism detected between %s and %s \nSimilarity: %.2f%% %n",
-                                      args[i],
-                                      args[j],
-                                      similarity * 100);
-                    System.out.println("Similar sequence(s):");
-                    System.out.println("- " + String.join(" ", longestSimilarSequence.reversed()));
-                } else {
-                    System.out.println("No Plagiarism Detected.");
+        // Archive the documents instead of comparing them
+        if (options.buildIndex()) {
+            Winnowing winnowing = new Winnowing(TOKEN_DICTIONARY,
+                                                options.winnowK(),
+                                                options.winnowWindow(),
+                                                options.winnowMinShared());
+            try {
+                CorpusIndex.write(options.index(), documents, TOKEN_DICTIONARY, winnowing);
+            } catch (IOException e) {
+                System.err.println("Could not write " + options.index() + ": " + e.getMessage());
+                return;
+            }
+            System.out.println(reader.report());
+            System.out.println("Wrote corpus index " + options.index() + " with " + documents.size() + " document(s)");
+            return;
+        }
+
+        // Check the documents against an archived corpus and each other
+        CorpusIndex corpus = null;
+        if (options.index() != null) {
+            try {
+                corpus = CorpusIndex.open(options.index());
+            } catch (IOException e) {
+                System.err.println("Could not open " + options.index() + ": " + e.getMessage());
+                return;
+            }
+        }
+
+        // Compare text documents and detect potential plagiarism, printing the results in pair order
+        ParallelPairComparator comparator = new ParallelPairComparator(options.threads());
+        CandidateGenerator generator = corpus != null
+                                       ? new Winnowing(TOKEN_DICTIONARY,
+                                                       corpus.k(),
+                                                       corpus.window(),
+                                                       options.winnowMinShared())
+                                       : switch (options.pairMode()) {
+            case ALL -> null;
+            case LENGTH -> new LengthSweep(maxLen -> maxEditDistance(maxLen, similarityThreshold(options)));
+            case PASSJOIN -> new PassJoin(similarityThreshold(options),
+                                          maxLen -> maxEditDistance(maxLen, similarityThreshold(options)));
+            case JACCARD -> new PrefixFilterJoin(options.jaccardThreshold());
+            case COSINE -> new TfIdfCosine(options.cosineThreshold(), options.threads());
+            case LSH -> new MinHashLsh(TOKEN_DICTIONARY, options.lshThreshold(), options.lshRecall());
+            case WINNOW -> new Winnowing(TOKEN_DICTIONARY,
+                                         options.winnowK(),
+                                         options.winnowWindow(),
+                                         options.winnowMinShared());
+            case SIMHASH -> new SimHashIndex(options.nearDuplicateDistance());
+        };
+        int submissions = documents.size();
+        long[] candidates = corpus != null
+                            ? corpusCandidates(documents, corpus, (Winnowing) generator, options.winnowMinShared())
+                            : generator != null ? generator.candidates(documents) : null;
+        ParallelPairComparator.PairCheck check = (first, second, filter) -> {
+            ComparisonResult result = comparePair(first, second, filter, options);
+            if (result.detected() && options.passageMode() != null) {
+                return result.withPassages(switch (options.passageMode()) {
+                    case TILES -> GREEDY_STRING_TILING.tiles(first.tokens(), second.tokens());
+                    case MAXIMAL -> SUFFIX_ARRAY_MATCHER.passages(first.tokens(), second.tokens());
+                });
+            }
+            // winnowing fingerprints also locate the passages of a detected pair
+            if (result.detected() && generator instanceof Winnowing winnowing) {
+                return result.withPassages(winnowing.passages(first.tokens(), second.tokens()));
+            }
+            return result;
+        };
+
+        // In incremental mode only pairs without a stored result are compared, and every new result is stored
+        ComparisonStore store = null;
+        long[] keys = null;
+        if (options.state() != null) {
+            try {
+                store = ComparisonStore.load(options.state(), resultFingerprint(options, generator));
+            } catch (IOException e) {
+                System.err.println("Could not read " + options.state() + ": " + e.getMessage());
+                return;
+            }
+            keys = new long[documents.size()];
+            for (int d = 0; d < keys.length; d++) {
+                keys[d] = ComparisonStore.documentKey(documents.get(d), TOKEN_DICTIONARY);
+            }
+            candidates = store.pending(documents, keys, candidates);
+        }
+        ComparisonStore results = store;
+        long[] documentKeys = keys;
+        ParallelPairComparator.PairSink sink = (first, second, result) -> {
+            if (results != null) {
+                // stored results of the pairs before this one, so the output matches a full run
+                long pair = CandidateGenerator.pair(first, second);
+                for (ComparisonResult stored : results.reusedBefore(pair)) {
+                    System.out.print(stored.report());
                 }
+                results.put(documentKeys[first], documentKeys[second], result);
+            }
+            System.out.print(result.report());
+        };
+        PairPrefilter prefilter = candidates == null
+                                  ? comparator.compareAll(documents, check, sink)
+                                  : comparator.compareCandidates(documents, candidates, check, sink);
+        if (store != null) {
+            for (ComparisonResult stored : store.reusedBefore(Long.MAX_VALUE)) {
+                System.out.print(stored.report());
             }
         }
+
+        System.out.println();
+        System.out.println(reader.report());
+        if (corpus != null) {
+            System.out.println(corpus.report());
+            System.out.println((documents.size() - submissions) + " archived document(s) share fingerprints with "
+                               + submissions + " submission(s)");
+            // the winnowing statistics cover the pairs of submissions
+            System.out.println(generator.report());
+        } else if (generator != null) {
+            System.out.println(generator.report());
+        }
+        System.out.println(prefilter.report());
+        if (store != null) {
+            try {
+                store.save(options.state(), keys);
+            } catch (IOException e) {
+                System.err.println("Could not write " + options.state() + ": " + e.getMessage());
+            }
+            System.out.println(store.report(options.state()));
+        }
     }
 
     /**
-     * Calculate the Edit Distance between two texts
+     * Fingerprint of the options that decide which pairs are compared and what the result of a pair contains, so
+     * stored results are only reused by runs that would compute the same ones. The pair selection matters because
+     * the store counts a pair of two known documents without a stored result as not detected
+     *
+     * @param options   {@link DetectorOptions} - options of the run
+     * @param generator {@link CandidateGenerator} - candidate generator of the run, null for every pair
+     * @return {@link Long} hash of the pair selection, the thresholds, the sequence settings and the passage source
+     */
+    private static long resultFingerprint(DetectorOptions options, CandidateGenerator generator) {
+        long[] settings = {
+                Double.doubleToLongBits(similarityThreshold(options)),
+                options.nearDuplicateDistance(),
+                options.evidence() ? 1 : 0,
+                options.lcsMemoryBudget(),
+                options.approximateLcsWords(),
+                options.anchorK(),
+                options.passageMode() != null ? options.passageMode().ordinal() : -1,
+                // the candidate pairs, and with winnowing also the passages
+                options.index() != null ? -1 : options.pairMode().ordinal(),
+                Double.doubleToLongBits(options.jaccardThreshold()),
+                Double.doubleToLongBits(options.cosineThreshold()),
+                Double.doubleToLongBits(options.lshThreshold()),
+                Double.doubleToLongBits(options.lshRecall()),
+                generator instanceof Winnowing winnowing ? winnowing.k() : 0,
+                generator instanceof Winnowing winnowing ? winnowing.window() : 0,
+                options.winnowMinShared()
+        };
+        long fingerprint = 0;
+        for (long setting : settings) {
+            fingerprint = TokenDictionary.mix64(fingerprint * 0x9E3779B97F4A7C15L + setting);
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Look up the archived documents that share fingerprints with the submissions, append them to the document
+     * list and pair each with the submissions it matched. Submissions that share fingerprints with each other are
+     * paired too, so a batch handed in together is also checked within itself
+     *
+     * @param documents {@link List<Document>} the submissions; the matched archived documents are appended
+     * @param corpus    {@link CorpusIndex} archive to search
+     * @param winnowing {@link Winnowing} fingerprinting with the archive's k and window
+     * @param minShared {@link Integer} distinct fingerprints an archived document must share with a submission
+     * @return {@link Long[]} packed (submission, submission) and (submission, archived document) pairs, sorted
+     */
+    private static long[] corpusCandidates(List<Document> documents,
+                                           CorpusIndex corpus,
+                                           Winnowing winnowing,
+                                           int minShared) {
+        int submissions = documents.size();
+        Map<Integer, Integer> loaded = new HashMap<>();
+        CandidateGenerator.PairList pairs = new CandidateGenerator.PairList();
+        for (long pair : winnowing.candidates(documents.subList(0, submissions))) {
+            pairs.add(CandidateGenerator.first(pair), CandidateGenerator.second(pair));
+        }
+        for (int s = 0; s < submissions; s++) {
+            for (int archived : corpus.candidates(winnowing.fingerprint(documents.get(s).tokens()), minShared)) {
+                Integer position = loaded.get(archived);
+                if (position == null) {
+                    position = documents.size();
+                    documents.add(corpus.document(archived, TOKEN_DICTIONARY));
+                    loaded.put(archived, position);
+                }
+                pairs.add(s, position);
+            }
+        }
+        return pairs.toSortedArray();
+    }
+
+    /**
+     * Compare two documents and decide whether they are potential plagiarism
+     *
+     * @param first     {@link Document} - document to compare to
+     * @param second    {@link Document} - document to compare from
+     * @param prefilter {@link PairPrefilter} - prefilter counting the pairs it rejects
+     * @param options   {@link DetectorOptions} - options of the run
+     * @return {@link ComparisonResult} outcome of the pair
+     */
+    private static ComparisonResult comparePair(Document first,
+                                                Document second,
+                                                PairPrefilter prefilter,
+                                                DetectorOptions options) {
+        // flag near verbatim copies by their signatures alone, the similar sequence only if it was asked for
+        int nearDuplicateDistance = options.nearDuplicateDistance();
+        if (nearDuplicateDistance >= 0) {
+            int distance = SimHashIndex.distance(first.simHash(), second.simHash());
+            if (distance <= nearDuplicateDistance) {
+                List<String> evidence = options.evidence()
+                                        ? findSimilarSequence(first, second, options).reversed()
+                                        : List.of();
+                return ComparisonResult.nearDuplicate(first.name(), second.name(), distance, evidence);
+            }
+        }
+
+        // skip pairs that provably cannot reach either threshold before allocating any DP table
+        double threshold = similarityThreshold(options);
+        int maxLen = Math.max(first.text().length(), second.text().length());
+        if (prefilter.reject(first.profile(),
+                             second.profile(),
+                             maxEditDistance(maxLen, threshold),
+                             MIN_SEQUENCE_LENGTH)) {
+            return ComparisonResult.notDetected();
+        }
+
+        // get the similarity score between two texts, abandoning the DP once it cannot reach the threshold
+        double similarity = calculateSimilarity(first.text(), second.text(), threshold);
+        // get the longest similar sequence, only needed when the similarity already qualifies and the bit-parallel
+        // LCS length shows it is long enough to report; long documents take the anchor chain without either
+        List<String> longestSimilarSequence = similarity < threshold
+                                              ? List.of()
+                                              : approximated(first, second, options)
+                                                ? findSimilarSequence(first, second, options)
+                                                : LCS_LENGTH_ENGINE.get().length(first.tokens(),
+                                                                                 second.occurrences(),
+                                                                                 second.tokens().length)
+                                                  >= MIN_SEQUENCE_LENGTH
+                                                  ? findLongestCommonSubsequence(first,
+                                                                                 second,
+                                                                                 options.lcsMemoryBudget())
+                                                  : List.of();
+
+        // if similarity is above threshold and similar sequence's length is greater than threshold -> Plagiarism Detected
+        // else No Plagiarism
+        if (similarity >= threshold && longestSimilarSequence.size() >= MIN_SEQUENCE_LENGTH) {
+            return new ComparisonResult(first.name(), second.name(), similarity, longestSimilarSequence.reversed());
+        }
+        return ComparisonResult.notDetected();
+    }
+
+    /**
+     * @param options {@link DetectorOptions} - options of the run
+     * @return {@link Double} similarity threshold of the run, {@link #SIMILARITY_THRESHOLD} unless overridden
+     */
+    private static double similarityThreshold(DetectorOptions options) {
+        return Double.isNaN(options.similarityThreshold()) ? SIMILARITY_THRESHOLD : options.similarityThreshold();
+    }
+
+    /**
+     * Calculate the Edit Distance between two texts (bit-parallel for all but tiny inputs)
      *
      * @param text1 {@link String} - text to compare to
      * @param text2 {@link String} - text to compare from
      * @return {@link Integer} edit distance between two texts
      */
     private static int calculateEditDistance(String text1, String text2) {
-        int len1 = text1.length();
-        int len2 = text2.length();
-
-        int[][] dp = new int[len1 + 1][len2 + 1];
-
-        for (int i = 0; i <= len1; i++) {
-            for (int j = 0; j <= len2; j++) {
-                if (i == 0) {
-                    dp[i][j] = j;
-                } else if (j == 0) {
-                    dp[i][j] = i;
-                } else if (text1.charAt(i - 1) == text2.charAt(j - 1)) {
-                    dp[i][j] = dp[i - 1][j - 1];
-                } else {
-                    dp[i][j] = 1 + Math.min(dp[i - 1][j], Math.min(dp[i][j - 1], dp[i - 1][j - 1]));
-                }
-            }
-        }
-        return dp[len1][len2];
+        return EDIT_DISTANCE_ENGINE.get().distance(text1, text2);
     }
 
     /**
@@ -114,35 +372,70 @@ public class PlagiarismDetector {
         return 1 - ((double) editDistance / maxLen);
     }
 
+    /**
+     * Calculate similarity based on Edit Distance, but only as precisely as needed to compare it with a threshold.
+     * The threshold caps the edit distance at k = (1 - threshold) * maxLen, so the DP can stop as soon as the
+     * distance is known to exceed k
+     *
+     * @param text1     {@link String} - text to compare to
+     * @param text2     {@link String} - text to compare from
+     * @param threshold {@link Double} - similarity the caller compares the result against
+     * @return {@link Double} the exact similarity if it reaches the threshold, otherwise some value below it
+     */
+    private static double calculateSimilarity(String text1, String text2, double threshold) {
+        int maxLen = Math.max(text1.length(), text2.length());
+        if (maxLen == 0) {
+            return calculateSimilarity(text1, text2);
+        }
+        int maxDistance = maxEditDistance(maxLen, threshold);
+        int editDistance = EDIT_DISTANCE_ENGINE.get().boundedDistance(text1, text2, maxDistance);
+        return 1 - ((double) editDistance / maxLen);
+    }
+
+    /**
+     * Largest edit distance whose similarity still reaches the threshold, evaluated with the exact same
+     * floating point expression as {@link #calculateSimilarity(String, String)} so no rounding edge is lost
+     *
+     * @param maxLen    {@link Integer} length of the longer text
+     * @param threshold {@link Double} similarity threshold
+     * @return {@link Integer} largest qualifying edit distance, 0 if not even identical texts qualify
+     */
+    private static int maxEditDistance(int maxLen, double threshold) {
+        int k = (int) Math.max(0, Math.min(maxLen, Math.floor((1 - threshold) * maxLen)));
+        while (k > 0 && 1 - ((double) k / maxLen) < threshold) {
+            k--;
+        }
+        while (k < maxLen && 1 - ((double) (k + 1) / maxLen) >= threshold) {
+            k++;
+        }
+        return k;
+    }
+
     /**
      * this method is used to read text content from a file
      *
      * @param filePath {@link String} path of the file to read
      * @return {@link String} text read from the file
-     * @throws FileNotFoundException if file is not found
-     */
-    private static String readFile(String filePath) throws FileNotFoundException {
-        StringBuilder content;
-        try (Scanner scanner = new Scanner(new File(filePath))) {
-            content = new StringBuilder();
-            while (scanner.hasNextLine()) {
-                content.append(scanner.nextLine()).append("\n");
-            }
-        }
-        return content.toString();
+     * @throws IOException if the file cannot be read, {@link NoSuchFileException} if it is not found
+     */
+    private static String readFile(String filePath) throws IOException {
+        return Files.readString(Path.of(filePath), StandardCharsets.UTF_8);
     }
 
     /**
-     * this method preprocesses text by removing stop words and converting to lowercase
+     * this method reads a file and preprocesses its text by converting to lowercase, splitting at whitespace and
+     * punctuation and removing stop words; the reader decodes straight into the {@link Tokenizer}, so the raw
+     * text is never held as a String
      *
-     * @param text {@link String} text to preprocess
-     * @return {@link String} processed text
+     * @param filePath {@link String} path of the file to read
+     * @param reader   {@link DocumentReader} reader for the run's charset
+     * @return {@link Document} processed text with its interned words
+     * @throws IOException if the file cannot be read, {@link NoSuchFileException} if it is not found
      */
-    private static String preprocessText(String text) {
-        String lowercaseText = text.toLowerCase();
-        return Arrays.stream(lowercaseText.split("\\s+"))
-                     .filter(word -> !STOP_WORDS.contains(word))
-                     .collect(Collectors.joining(" "));
+    private static Document preprocessText(String filePath, DocumentReader reader) throws IOException {
+        Tokenizer tokenizer = TOKENIZER.get();
+        reader.read(Path.of(filePath), tokenizer);
+        return Document.of(filePath, tokenizer, TOKEN_DICTIONARY);
     }
 
     /**
@@ -153,62 +446,117 @@ public class PlagiarismDetector {
      * @return {@link List<String>} list of longest common subsequence(s).
      */
     public static List<String> findLongestCommonSubsequence(String str1, String str2) {
-        String[] words1 = str1.split("\\s+");
-        String[] words2 = str2.split("\\s+");
-
-        // Create a DP table to store lengths of longest common subsequences
-        int[][] dp = new int[words1.length + 1][words2.length + 1];
-
-        // Find the length of the longest common subsequence
-        for (int i = 1; i <= words1.length; i++) {
-            for (int j = 1; j <= words2.length; j++) {
-                if (words1[i - 1].equals(words2[j - 1])) {
-                    dp[i][j] = dp[i - 1][j - 1] + 1;
-                } else {
-                    dp[i][j] = Math.max(dp[i - 1][j], dp[i][j - 1]);
-                }
-            }
-        }
+        return findLongestCommonSubsequence(str1, str2, LcsEngine.DEFAULT_MEMORY_BUDGET);
+    }
 
-        // Backtrack to find the actual subsequences
-        List<String> subsequences = new ArrayList<>();
-        backtrack(words1, words2, dp, subsequences, words1.length, words2.length);
+    /**
+     * Find the longest common subsequences between two string, keeping the DP table within a memory budget.
+     * The table stores 2 bit traceback directions per cell and is traced iteratively by {@link LcsEngine}; pairs
+     * whose table would not fit are split in linear space with the same result
+     *
+     * @param str1         {@link String}
+     * @param str2         {@link String}
+     * @param memoryBudget {@link Long} bytes the DP table of this pair may use
+     * @return {@link List<String>} list of longest common subsequence(s).
+     */
+    public static List<String> findLongestCommonSubsequence(String str1, String str2, long memoryBudget) {
+        TokenDictionary dictionary = new TokenDictionary();
+        int[] words1 = dictionary.intern(str1.split("\\s+"));
+        int[] words2 = dictionary.intern(str2.split("\\s+"));
+        return toWords(traceback(words1,
+                                 LcsLengthEngine.Occurrences.of(words1),
+                                 words2,
+                                 LcsLengthEngine.Occurrences.of(words2),
+                                 memoryBudget),
+                       dictionary);
+    }
 
-        return subsequences;
+    /**
+     * Find the longest common subsequences between two documents on their interned word ids, without splitting
+     * or comparing any strings
+     *
+     * @param document1    {@link Document}
+     * @param document2    {@link Document}
+     * @param memoryBudget {@link Long} bytes the DP table of this pair may use
+     * @return {@link List<String>} list of longest common subsequence(s).
+     */
+    private static List<String> findLongestCommonSubsequence(Document document1,
+                                                             Document document2,
+                                                             long memoryBudget) {
+        return toWords(traceback(document1.tokens(),
+                                 document1.occurrences(),
+                                 document2.tokens(),
+                                 document2.occurrences(),
+                                 memoryBudget),
+                       TOKEN_DICTIONARY);
     }
 
     /**
-     * Helper function to extract subsequences recursively
+     * Find the similar sequence of two documents: the exact longest common subsequence, or the {@link AnchorChain}
+     * approximation when a document is longer than --approximate-lcs allows. The approximation is a common
+     * subsequence too, never longer than the exact one
      *
-     * @param words1       {@link String[]}
-     * @param words2       {@link String[]}
-     * @param dp           {@link Integer[][]}
-     * @param subsequences {@link List<String>}
-     * @param i            {@link Integer}
-     * @param j            {@link Integer}
-     */
-    private static void backtrack(String[] words1,
-                                  String[] words2,
-                                  int[][] dp,
-                                  List<String> subsequences,
-                                  int i,
-                                  int j) {
-        if (i == 0 || j == 0) {
-            return;
+     * @param document1 {@link Document}
+     * @param document2 {@link Document}
+     * @param options   {@link DetectorOptions} - options of the run
+     * @return {@link List<String>} the common subsequence, last word first
+     */
+    private static List<String> findSimilarSequence(Document document1, Document document2, DetectorOptions options) {
+        if (approximated(document1, document2, options)) {
+            return toWords(new AnchorChain(options.anchorK()).chain(document1.tokens(), document2.tokens()),
+                           TOKEN_DICTIONARY);
         }
+        return findLongestCommonSubsequence(document1, document2, options.lcsMemoryBudget());
+    }
 
-        if (words1[i - 1].equals(words2[j - 1]) && dp[i][j] == dp[i - 1][j - 1] + 1) {
-            subsequences.add(words1[i - 1]);
-            backtrack(words1, words2, dp, subsequences, i - 1, j - 1);
-        } else {
-            if (dp[i][j] == dp[i - 1][j]) {
-                backtrack(words1, words2, dp, subsequences, i - 1, j);
-            } else {
-                backtrack(words1, words2, dp, subsequences, i, j - 1);
-            }
-        }
+    /**
+     * @param document1 {@link Document}
+     * @param document2 {@link Document}
+     * @param options   {@link DetectorOptions} - options of the run
+     * @return {@link Boolean} true if either document is longer than the --approximate-lcs word count
+     */
+    private static boolean approximated(Document document1, Document document2, DetectorOptions options) {
+        int approximateLcsWords = options.approximateLcsWords();
+        return approximateLcsWords > 0
+               && Math.max(document1.tokens().length, document2.tokens().length) > approximateLcsWords;
     }
 
-}
+    /**
+     * Trace the longest common subsequence with the cheaper exact algorithm: the sparse
+     * {@link HuntSzymanski} when the two texts share few matching word pairs compared with the n * m table
+     * cells, otherwise the {@link LcsEngine} table. Both return the same subsequence
+     *
+     * @param words1       {@link Integer[]} word ids of the first text
+     * @param occurrences1 {@link LcsLengthEngine.Occurrences} word positions of the first text
+     * @param words2       {@link Integer[]} word ids of the second text
+     * @param occurrences2 {@link LcsLengthEngine.Occurrences} word positions of the second text
+     * @param memoryBudget {@link Long} bytes the DP table of this pair may use
+     * @return {@link Integer[]} ids of the common subsequence, last word first
+     */
+    private static int[] traceback(int[] words1,
+                                   LcsLengthEngine.Occurrences occurrences1,
+                                   int[] words2,
+                                   LcsLengthEngine.Occurrences occurrences2,
+                                   long memoryBudget) {
+        if (HuntSzymanski.preferred(occurrences1, words1.length, occurrences2, words2.length)) {
+            return HuntSzymanski.traceback(words1, words2, occurrences2);
+        }
+        return LcsEngine.traceback(words1, words2, memoryBudget);
+    }
 
+    /**
+     * Map interned word ids back to their words
+     *
+     * @param ids        {@link Integer[]} word ids
+     * @param dictionary {@link TokenDictionary} dictionary the ids come from
+     * @return {@link List<String>} the words, in the same order
+     */
+    private static List<String> toWords(int[] ids, TokenDictionary dictionary) {
+        List<String> words = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            words.add(dictionary.token(id));
+        }
+        return words;
+    }
 
+}
@@ -0,0 +1,258 @@
+/*
+ * File: PrefixFilterJoin
+ * Created On: 18-10-2026
+ */
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Exact Jaccard similarity join over the sets of distinct preprocessed words, in the style of AllPairs (Bayardo,
+ * Ma and Srikant) with the positional filter of PPJoin (Xiao, Wang, Lin and Yu).
+ * <p>
+ * Every set is sorted by a global word order, rarest words first. Two sets x and y with Jaccard similarity at
+ * least t overlap in at least alpha = t / (1 + t) * (|x| + |y|) words, so when both are sorted the same way they
+ * share a word within the first |x| - ceil(t * |x|) + 1 words of x. The sets are visited by size; each one probes
+ * the inverted index of the smaller sets with that prefix, then indexes its own shorter prefix
+ * |x| - ceil(2t / (1 + t) * |x|) + 1, which is all a set of at least its size needs to find it. Rare words first
+ * keeps the posting lists that prefixes hit short.
+ * <p>
+ * Two more filters drop probe hits early: a set smaller than t * |x| can never reach the threshold (length
+ * filter), and from a word shared at 0 based positions i and j on, the sets have at most
+ * 1 + min(|x| - i - 1, |y| - j - 1) words in common, so a pair whose overlap so far plus that bound falls short
+ * of alpha is dropped (positional filter). The surviving pairs are verified with a merge of both sets, so the
+ * result is exactly the pairs at or above the threshold, found without enumerating all pairs.
+ */
+final class PrefixFilterJoin implements CandidateGenerator {
+
+    // Slack for the floating point bounds; loosening a bound only costs a verification, never a pair
+    private static final double EPSILON = 1e-9;
+    // Overlap marker of a pair the positional filter dropped
+    private static final int PRUNED = -1;
+
+    // Jaccard similarity a pair must reach
+    private final double threshold;
+
+    // Statistics of the last run
+    private long candidateCount;
+    private long pairCount;
+    private long verified;
+
+    /**
+     * @param threshold {@link Double} word set Jaccard similarity a pair must reach, in (0, 1)
+     */
+    PrefixFilterJoin(double threshold) {
+        this.threshold = threshold;
+    }
+
+    @Override
+    public long[] candidates(List<Document> documents) {
+        int n = documents.size();
+        int[][] sets = orderedSets(documents);
+
+        // (size << 32) | index, so sorting orders by set size and keeps the index
+        long[] bySize = new long[n];
+        for (int d = 0; d < n; d++) {
+            bySize[d] = (long) sets[d].length << 32 | d;
+        }
+        Arrays.sort(bySize);
+
+        int words = 0;
+        for (int[] set : sets) {
+            for (int rank : set) {
+                words = Math.max(words, rank + 1);
+            }
+        }
+        Postings[] index = new Postings[words];
+        // overlap found so far per visited document, PRUNED once the positional filter dropped it
+        int[] overlap = new int[n];
+        int[] touched = new int[n];
+        PairList pairs = new PairList();
+        verified = 0;
+
+        for (int a = 0; a < n; a++) {
+            int document = (int) bySize[a];
+            int[] x = sets[document];
+            if (x.length == 0) {
+                // Jaccard similarity is undefined for an empty set
+                continue;
+            }
+            int minSize = (int) Math.ceil(threshold * x.length - EPSILON);
+            int probePrefix = x.length - minSize + 1;
+            int touchedCount = 0;
+            for (int i = 0; i < probePrefix; i++) {
+                Postings list = index[x[i]];
+                if (list == null) {
+                    continue;
+                }
+                // sets are indexed by ascending size, so the ones below the length filter are at the front
+                while (list.start < list.size && sets[list.documents[list.start]].length < minSize) {
+                    list.start++;
+                }
+                for (int e = list.start; e < list.size; e++) {
+                    int other = list.documents[e];
+                    if (overlap[other] == PRUNED) {
+                        continue;
+                    }
+                    int[] y = sets[other];
+                    int alpha = requiredOverlap(x.length, y.length);
+                    int bound = 1 + Math.min(x.length - i - 1, y.length - list.positions[e] - 1);
+                    if (overlap[other] == 0) {
+                        touched[touchedCount++] = other;
+                    }
+                    if (overlap[other] + bound >= alpha) {
+                        overlap[other]++;
+                    } else {
+                        overlap[other] = PRUNED;
+                    }
+                }
+            }
+
+            for (int t = 0; t < touchedCount; t++) {
+                int other = touched[t];
+                if (overlap[other] != PRUNED) {
+                    verified++;
+                    int[] y = sets[other];
+                    int common = overlap(x, y, requiredOverlap(x.length, y.length));
+                    if (common >= 0 && (double) common / (x.length + y.length - common) >= threshold) {
+                        pairs.add(other, document);
+                    }
+                }
+                overlap[other] = 0;
+            }
+
+            // a set of at least this size only needs to find this one within its index prefix
+            int indexPrefix = x.length - (int) Math.ceil(2 * threshold / (1 + threshold) * x.length - EPSILON) + 1;
+            for (int i = 0; i < Math.min(indexPrefix, x.length); i++) {
+                if (index[x[i]] == null) {
+                    index[x[i]] = new Postings();
+                }
+                index[x[i]].add(document, i);
+            }
+        }
+
+        long[] candidates = pairs.toSortedArray();
+        candidateCount = candidates.length;
+        pairCount = (long) n * (n - 1) / 2;
+        return candidates;
+    }
+
+    /**
+     * Distinct words of every document as ranks of a global order, rarest first, each set sorted ascending
+     *
+     * @param documents {@link List<Document>} documents of the run
+     * @return {@link Integer[][]} ordered word set of every document
+     */
+    private static int[][] orderedSets(List<Document> documents) {
+        int words = 0;
+        int[][] sets = new int[documents.size()][];
+        for (int d = 0; d < sets.length; d++) {
+            int[] distinct = documents.get(d).tokens().clone();
+            Arrays.sort(distinct);
+            int size = 0;
+            for (int t = 0; t < distinct.length; t++) {
+                if (t == 0 || distinct[t] != distinct[t - 1]) {
+                    distinct[size++] = distinct[t];
+                }
+            }
+            sets[d] = Arrays.copyOf(distinct, size);
+            if (size > 0) {
+                words = Math.max(words, sets[d][size - 1] + 1);
+            }
+        }
+
+        // rank word ids by document frequency, ties by id so the order is deterministic
+        int[] frequency = new int[words];
+        for (int[] set : sets) {
+            for (int word : set) {
+                frequency[word]++;
+            }
+        }
+        long[] byFrequency = new long[words];
+        for (int word = 0; word < words; word++) {
+            byFrequency[word] = (long) frequency[word] << 32 | word;
+        }
+        Arrays.sort(byFrequency);
+        int[] rank = new int[words];
+        for (int r = 0; r < words; r++) {
+            rank[(int) byFrequency[r]] = r;
+        }
+
+        for (int[] set : sets) {
+            for (int w = 0; w < set.length; w++) {
+                set[w] = rank[set[w]];
+            }
+            Arrays.sort(set);
+        }
+        return sets;
+    }
+
+    /**
+     * Smallest overlap two sets of the given sizes need to reach the threshold, rounded down a little so float
+     * error can never drop a qualifying pair
+     *
+     * @param first  {@link Integer} size of one set
+     * @param second {@link Integer} size of the other set
+     * @return {@link Integer} required number of common words
+     */
+    private int requiredOverlap(int first, int second) {
+        return (int) Math.ceil(threshold / (1 + threshold) * (first + second) - EPSILON);
+    }
+
+    /**
+     * Count the common words of two sets, giving up once the rest of the sets cannot bring the count to alpha
+     *
+     * @param x     {@link Integer[]} sorted word set
+     * @param y     {@link Integer[]} sorted word set
+     * @param alpha {@link Integer} overlap the caller needs
+     * @return {@link Integer} number of common words, -1 if it is certainly below alpha
+     */
+    private static int overlap(int[] x, int[] y, int alpha) {
+        int common = 0;
+        for (int i = 0, j = 0; i < x.length && j < y.length; ) {
+            if (common + Math.min(x.length - i, y.length - j) < alpha) {
+                return -1;
+            }
+            if (x[i] == y[j]) {
+                common++;
+                i++;
+                j++;
+            } else if (x[i] < y[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return common;
+    }
+
+    @Override
+    public String report() {
+        return String.format("Prefix filter join kept %d of %d pair(s) at word Jaccard %.2f (%d verified)",
+                             candidateCount,
+                             pairCount,
+                             threshold,
+                             verified);
+    }
+
+    /**
+     * Indexed prefix positions of one word, in order of set size
+     */
+    private static final class Postings {
+        private int[] documents = new int[2];
+        private int[] positions = new int[2];
+        private int size;
+        // first entry that can still pass the length filter of the sets probing now
+        private int start;
+
+        private void add(int document, int position) {
+            if (size == documents.length) {
+                documents = Arrays.copyOf(documents, size * 2);
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            documents[size] = document;
+            positions[size] = position;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * File: SimHashIndex
+ * Created On: 18-10-2026
+ */
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 64 bit SimHash signatures (Charikar) and an index that finds every document pair whose signatures differ in at
+ * most h bits without visiting all pairs (Manku, Jain and Das Sarma).
+ * <p>
+ * A signature is the sign of the per bit sum of +1 / -1 over the hashes of all word shingles
+ * ({@link #SHINGLE_WORDS} consecutive preprocessed words), so near verbatim copies get signatures a few bits
+ * apart. For the pair search the 64 bits are cut into h + 1 blocks. Two signatures at most h bits apart agree
+ * exactly on at least one block. Each block therefore gets one table: the signatures are permuted so the block
+ * forms the leading key bits, the table is sorted, and only documents sharing the key are compared in full.
+ */
+final class SimHashIndex implements CandidateGenerator {
+
+    // Words per shingle
+    static final int SHINGLE_WORDS = 3;
+    // Bits per signature
+    static final int BITS = Long.SIZE;
+    // Largest supported Hamming distance
+    static final int MAX_DISTANCE = 31;
+    // Distance used when screening is asked for without one, the value Manku et al. found for web pages
+    static final int DEFAULT_DISTANCE = 3;
+
+    // Largest Hamming distance of a near duplicate pair
+    private final int maxDistance;
+
+    // Statistics of the last run
+    private long candidateCount;
+    private long pairCount;
+    private long verified;
+
+    /**
+     * @param maxDistance {@link Integer} largest Hamming distance of a near duplicate pair, 0 to {@link #MAX_DISTANCE}
+     */
+    SimHashIndex(int maxDistance) {
+        this.maxDistance = maxDistance;
+    }
+
+    /**
+     * SimHash of a document
+     *
+     * @param tokens     {@link Integer[]} interned words of the document
+     * @param dictionary {@link TokenDictionary} dictionary the tokens come from, for the stable word hashes
+     * @return {@link Long} 64 bit signature, 0 for an empty document
+     */
+    static long signature(int[] tokens, TokenDictionary dictionary) {
+        if (tokens.length == 0) {
+            return 0;
+        }
+        int[] votes = new int[BITS];
+        int shingles = Math.max(1, tokens.length - SHINGLE_WORDS + 1);
+        for (int p = 0; p < shingles; p++) {
+            long shingle = 0;
+            for (int w = p; w < Math.min(tokens.length, p + SHINGLE_WORDS); w++) {
+                shingle = shingle * 0x9E3779B97F4A7C15L + dictionary.tokenHash(tokens[w]);
+            }
+            long hash = TokenDictionary.mix64(shingle);
+            for (int bit = 0; bit < BITS; bit++) {
+                // +1 for a set bit, -1 for a clear one
+                votes[bit] += (int) ((hash >>> bit) & 1) * 2 - 1;
+            }
+        }
+        long signature = 0;
+        for (int bit = 0; bit < BITS; bit++) {
+            if (votes[bit] > 0) {
+                signature |= 1L << bit;
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * @param first  {@link Long} one signature
+     * @param second {@link Long} another signature
+     * @return {@link Integer} number of differing bits
+     */
+    static int distance(long first, long second) {
+        return Long.bitCount(first ^ second);
+    }
+
+    @Override
+    public long[] candidates(List<Document> documents) {
+        int n = documents.size();
+        long[] signatures = new long[n];
+        for (int d = 0; d < n; d++) {
+            signatures[d] = documents.get(d).simHash();
+        }
+
+        PairList pairs = new PairList();
+        verified = 0;
+        int blocks = maxDistance + 1;
+        long[] table = new long[n];
+        for (int block = 0; block < blocks; block++) {
+            int from = block * BITS / blocks;
+            int width = (block + 1) * BITS / blocks - from;
+            // a key of at most 32 bits packs next to the document index, a narrower key only adds verifications
+            int keyBits = Math.min(width, Integer.SIZE);
+            for (int d = 0; d < n; d++) {
+                long key = Long.rotateLeft(signatures[d], BITS - from - width) >>> (BITS - keyBits);
+                table[d] = key << Integer.SIZE | d;
+            }
+            Arrays.sort(table);
+            for (int start = 0; start < n; ) {
+                int end = start + 1;
+                while (end < n && table[end] >>> Integer.SIZE == table[start] >>> Integer.SIZE) {
+                    end++;
+                }
+                for (int a = start; a < end; a++) {
+                    int first = (int) table[a];
+                    for (int b = a + 1; b < end; b++) {
+                        int second = (int) table[b];
+                        verified++;
+                        if (distance(signatures[first], signatures[second]) <= maxDistance) {
+                            pairs.add(first, second);
+                        }
+                    }
+                }
+                start = end;
+            }
+        }
+
+        long[] candidates = pairs.toSortedArray();
+        candidateCount = candidates.length;
+        pairCount = (long) n * (n - 1) / 2;
+        return candidates;
+    }
+
+    @Override
+    public String report() {
+        return String.format("SimHash found %d near duplicate(s) of %d pair(s) within %d bit(s) (%d table(s), "
+                             + "%d signature comparison(s))",
+                             candidateCount,
+                             pairCount,
+                             maxDistance,
+                             maxDistance + 1,
+                             verified);
+    }
+}
@@ -0,0 +1,289 @@
+/*
+ * File: StopWordMatcher
+ * Created On: 18-10-2026
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Allocation free stop word test over {@code char[]} ranges and {@link CharSequence} slices, built once from
+ * the stop word list.
+ * <p>
+ * The words are placed with a minimal perfect hash (hash and displace): each word falls into a bucket by a first
+ * hash, and each bucket stores the displacement seed that sends all of its words to distinct slots of a table
+ * with exactly one slot per word. A lookup is two hashes of the candidate, one table read and one character
+ * comparison against the pooled word, with no boxing and no {@link String} created.
+ */
+final class StopWordMatcher {
+
+    // Seed of the hash that picks the bucket
+    private static final int BUCKET_SEED = 0x811C9DC5;
+    // Displacements tried for a bucket before the table is made one slot larger
+    private static final int MAX_DISPLACEMENT = 1 << 16;
+
+    // Per bucket, the seed of the hash that picks the slot
+    private final int[] displacements;
+    // Per slot, offset of its word in pool
+    private final int[] wordStarts;
+    // Per slot, length of its word
+    private final int[] wordLengths;
+    // All words back to back
+    private final char[] pool;
+
+    private StopWordMatcher(int[] displacements, int[] wordStarts, int[] wordLengths, char[] pool) {
+        this.displacements = displacements;
+        this.wordStarts = wordStarts;
+        this.wordLengths = wordLengths;
+        this.pool = pool;
+    }
+
+    /**
+     * Build the matcher for a set of stop words. Words are lowercased with the root locale, empty words ignored
+     *
+     * @param stopWords {@link Collection<String>} stop words
+     * @return {@link StopWordMatcher} matcher for exactly these words
+     */
+    static StopWordMatcher of(Collection<String> stopWords) {
+        Set<String> distinct = new LinkedHashSet<>();
+        for (String word : stopWords) {
+            if (!word.isEmpty()) {
+                distinct.add(word.toLowerCase(Locale.ROOT));
+            }
+        }
+        String[] words = distinct.toArray(new String[0]);
+        int[] hashes = new int[words.length];
+        for (int w = 0; w < words.length; w++) {
+            hashes[w] = hash(BUCKET_SEED, words[w], 0, words[w].length());
+        }
+
+        int slots = Math.max(1, words.length);
+        while (true) {
+            int[] placement = place(words, hashes, slots);
+            if (placement != null) {
+                return build(words, hashes, slots, placement);
+            }
+            // unlucky hashes, a spare slot makes the remaining buckets easy to place
+            slots++;
+        }
+    }
+
+    /**
+     * Find a displacement for every bucket, largest buckets first
+     *
+     * @param words  {@link String[]} distinct stop words
+     * @param hashes {@link Integer[]} bucket hash of every word
+     * @param slots  {@link Integer} table size
+     * @return {@link Integer[]} displacement per bucket, null if some bucket could not be placed
+     */
+    private static int[] place(String[] words, int[] hashes, int slots) {
+        int bucketCount = bucketCount(slots);
+        List<List<Integer>> buckets = new ArrayList<>();
+        for (int b = 0; b < bucketCount; b++) {
+            buckets.add(new ArrayList<>());
+        }
+        for (int w = 0; w < words.length; w++) {
+            buckets.get(Integer.remainderUnsigned(hashes[w], bucketCount)).add(w);
+        }
+        Integer[] order = new Integer[bucketCount];
+        for (int b = 0; b < bucketCount; b++) {
+            order[b] = b;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(buckets.get(b).size(), buckets.get(a).size()));
+
+        int[] displacements = new int[bucketCount];
+        boolean[] taken = new boolean[slots];
+        int[] candidate = new int[words.length];
+        for (int b : order) {
+            List<Integer> bucket = buckets.get(b);
+            if (bucket.isEmpty()) {
+                break;
+            }
+            boolean placed = false;
+            for (int displacement = 1; displacement <= MAX_DISPLACEMENT && !placed; displacement++) {
+                placed = true;
+                for (int k = 0; k < bucket.size() && placed; k++) {
+                    String word = words[bucket.get(k)];
+                    int slot = Integer.remainderUnsigned(hash(displacement, word, 0, word.length()), slots);
+                    for (int previous = 0; previous < k && placed; previous++) {
+                        placed = candidate[previous] != slot;
+                    }
+                    placed &= !taken[slot];
+                    candidate[k] = slot;
+                }
+                if (placed) {
+                    displacements[b] = displacement;
+                    for (int k = 0; k < bucket.size(); k++) {
+                        taken[candidate[k]] = true;
+                    }
+                }
+            }
+            if (!placed) {
+                return null;
+            }
+        }
+        return displacements;
+    }
+
+    /**
+     * Lay the words out in slot order once every bucket has its displacement
+     *
+     * @param words         {@link String[]} distinct stop words
+     * @param hashes        {@link Integer[]} bucket hash of every word
+     * @param slots         {@link Integer} table size
+     * @param displacements {@link Integer[]} displacement per bucket
+     * @return {@link StopWordMatcher} the matcher
+     */
+    private static StopWordMatcher build(String[] words, int[] hashes, int slots, int[] displacements) {
+        int[] wordStarts = new int[slots];
+        int[] wordLengths = new int[slots];
+        // empty slots (only when the table had to grow) keep length -1 and never match
+        Arrays.fill(wordLengths, -1);
+        StringBuilder pool = new StringBuilder();
+        for (int w = 0; w < words.length; w++) {
+            int displacement = displacements[Integer.remainderUnsigned(hashes[w], displacements.length)];
+            int slot = Integer.remainderUnsigned(hash(displacement, words[w], 0, words[w].length()), slots);
+            wordStarts[slot] = pool.length();
+            wordLengths[slot] = words[w].length();
+            pool.append(words[w]);
+        }
+        char[] chars = new char[pool.length()];
+        pool.getChars(0, pool.length(), chars, 0);
+        return new StopWordMatcher(displacements, wordStarts, wordLengths, chars);
+    }
+
+    /**
+     * Test whether chars[start, end) is a stop word
+     *
+     * @param chars {@link Character[]} buffer holding the candidate
+     * @param start {@link Integer} first char of the candidate
+     * @param end   {@link Integer} one past the last char of the candidate
+     * @return {@link Boolean} true if the candidate is a stop word
+     */
+    boolean contains(char[] chars, int start, int end) {
+        int slot = slot(hash(BUCKET_SEED, chars, start, end), chars, start, end);
+        if (wordLengths[slot] != end - start) {
+            return false;
+        }
+        int offset = wordStarts[slot] - start;
+        for (int i = start; i < end; i++) {
+            if (pool[offset + i] != chars[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Test whether text[start, end) is a stop word
+     *
+     * @param text  {@link CharSequence} text holding the candidate
+     * @param start {@link Integer} first char of the candidate
+     * @param end   {@link Integer} one past the last char of the candidate
+     * @return {@link Boolean} true if the candidate is a stop word
+     */
+    boolean contains(CharSequence text, int start, int end) {
+        int slot = slot(hash(BUCKET_SEED, text, start, end), text, start, end);
+        if (wordLengths[slot] != end - start) {
+            return false;
+        }
+        int offset = wordStarts[slot] - start;
+        for (int i = start; i < end; i++) {
+            if (pool[offset + i] != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Slot the candidate would occupy if it were a stop word
+     *
+     * @param bucketHash {@link Integer} bucket hash of the candidate
+     * @param chars      {@link Character[]} buffer holding the candidate
+     * @param start      {@link Integer} first char of the candidate
+     * @param end        {@link Integer} one past the last char of the candidate
+     * @return {@link Integer} table slot
+     */
+    private int slot(int bucketHash, char[] chars, int start, int end) {
+        int displacement = displacements[Integer.remainderUnsigned(bucketHash, displacements.length)];
+        return Integer.remainderUnsigned(hash(displacement, chars, start, end), wordLengths.length);
+    }
+
+    /**
+     * Slot the candidate would occupy if it were a stop word
+     *
+     * @param bucketHash {@link Integer} bucket hash of the candidate
+     * @param text       {@link CharSequence} text holding the candidate
+     * @param start      {@link Integer} first char of the candidate
+     * @param end        {@link Integer} one past the last char of the candidate
+     * @return {@link Integer} table slot
+     */
+    private int slot(int bucketHash, CharSequence text, int start, int end) {
+        int displacement = displacements[Integer.remainderUnsigned(bucketHash, displacements.length)];
+        return Integer.remainderUnsigned(hash(displacement, text, start, end), wordLengths.length);
+    }
+
+    /**
+     * Number of first level buckets for a table size, about four words per bucket
+     *
+     * @param slots {@link Integer} table size
+     * @return {@link Integer} bucket count, at least 1
+     */
+    private static int bucketCount(int slots) {
+        return Math.max(1, slots / 4);
+    }
+
+    /**
+     * Seeded FNV-1a style hash of chars[start, end) with a final avalanche
+     *
+     * @param seed  {@link Integer} initial hash value
+     * @param chars {@link Character[]} buffer holding the chars
+     * @param start {@link Integer} first char to hash
+     * @param end   {@link Integer} one past the last char to hash
+     * @return {@link Integer} hash
+     */
+    private static int hash(int seed, char[] chars, int start, int end) {
+        int h = seed;
+        for (int i = start; i < end; i++) {
+            h = (h ^ chars[i]) * 0x01000193;
+        }
+        return finish(h);
+    }
+
+    /**
+     * Seeded FNV-1a style hash of text[start, end) with a final avalanche, equal to the char[] variant
+     *
+     * @param seed  {@link Integer} initial hash value
+     * @param text  {@link CharSequence} text holding the chars
+     * @param start {@link Integer} first char to hash
+     * @param end   {@link Integer} one past the last char to hash
+     * @return {@link Integer} hash
+     */
+    private static int hash(int seed, CharSequence text, int start, int end) {
+        int h = seed;
+        for (int i = start; i < end; i++) {
+            h = (h ^ text.charAt(i)) * 0x01000193;
+        }
+        return finish(h);
+    }
+
+    /**
+     * Spread every input bit over the whole hash (murmur3 finalizer)
+     *
+     * @param h {@link Integer} raw hash
+     * @return {@link Integer} mixed hash
+     */
+    private static int finish(int h) {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,303 @@
+/*
+ * File: SuffixArrayMatcher
+ * Created On: 18-10-2026
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Maximal common passages of two documents from a generalized suffix array, without an n * m table.
+ * <p>
+ * The word ids of both documents are concatenated with a unique separator after each, so no common prefix can
+ * run from one document into the other. The suffix array is built by prefix doubling with radix sorted rank
+ * pairs in O(n log n), the LCP array by Kasai's algorithm in O(n).
+ * <p>
+ * The LCP intervals are then traversed bottom-up with a stack. Two suffixes, one of each document, that sit in
+ * different child intervals of an interval with LCP value l share exactly l words, so their match cannot be
+ * extended to the right. It is reported if it cannot be extended to the left either, i.e. one of them starts
+ * its document or the preceding words differ. This yields every maximal match of at least the minimum length
+ * exactly once. Intervals below the minimum length drop their suffix lists, because none of their ancestors can
+ * report anything. Apart from building the arrays, the cost is that of the suffix pairs checked, which stays
+ * close to the number of matches unless the documents repeat the same passage many times.
+ */
+final class SuffixArrayMatcher {
+
+    // Shortest common run of words that is reported
+    private final int minimumMatch;
+
+    /**
+     * @param minimumMatch {@link Integer} shortest common run of words that is reported, at least 1
+     */
+    SuffixArrayMatcher(int minimumMatch) {
+        this.minimumMatch = minimumMatch;
+    }
+
+    /**
+     * Every maximal common passage of two documents
+     *
+     * @param first  {@link Integer[]} interned words of the first document
+     * @param second {@link Integer[]} interned words of the second document
+     * @return {@link List<Passage>} maximal matches of at least the minimum length, which may overlap, ordered by
+     * their offset in the first document
+     */
+    List<Passage> passages(int[] first, int[] second) {
+        int[] text = concatenate(first, second);
+        int[] suffixes = suffixArray(text);
+        int[] lcp = lcpArray(text, suffixes);
+
+        List<Passage> passages = new ArrayList<>();
+        List<Interval> stack = new ArrayList<>();
+        stack.add(new Interval(0));
+        for (int i = 0; i < suffixes.length; i++) {
+            Interval leaf = new Interval(text.length - suffixes[i]);
+            if (suffixes[i] < first.length) {
+                leaf.firsts.add(suffixes[i]);
+            } else if (suffixes[i] > first.length && suffixes[i] < text.length - 1) {
+                leaf.seconds.add(suffixes[i] - first.length - 1);
+            }
+            // the suffix belongs to the deeper of the intervals it shares with its two neighbours
+            int depth = i + 1 < suffixes.length ? lcp[i + 1] : 0;
+            if (depth > stack.getLast().depth) {
+                stack.add(new Interval(depth));
+            }
+            merge(stack.getLast(), leaf, first, second, passages);
+
+            // its LCP with the next suffix closes every interval deeper than that
+            while (depth < stack.getLast().depth) {
+                Interval closed = stack.removeLast();
+                if (depth <= stack.getLast().depth) {
+                    merge(stack.getLast(), closed, first, second, passages);
+                } else {
+                    Interval parent = new Interval(depth);
+                    merge(parent, closed, first, second, passages);
+                    stack.add(parent);
+                }
+            }
+        }
+        passages.sort(Comparator.comparingInt(Passage::firstStart).thenComparingInt(Passage::secondStart));
+        return passages;
+    }
+
+    /**
+     * Add a child interval to its parent, reporting the maximal matches between the child's suffixes and those of
+     * the parent's earlier children
+     *
+     * @param parent   {@link Interval} enclosing interval
+     * @param child    {@link Interval} finished child interval or leaf
+     * @param first    {@link Integer[]} words of the first document
+     * @param second   {@link Integer[]} words of the second document
+     * @param passages {@link List<Passage>} receives the matches
+     */
+    private void merge(Interval parent, Interval child, int[] first, int[] second, List<Passage> passages) {
+        if (parent.depth < minimumMatch) {
+            // no enclosing interval can report a match of the minimum length
+            return;
+        }
+        for (int c = 0; c < child.firsts.size; c++) {
+            int p = child.firsts.values[c];
+            for (int e = 0; e < parent.seconds.size; e++) {
+                report(first, p, second, parent.seconds.values[e], parent.depth, passages);
+            }
+        }
+        for (int c = 0; c < child.seconds.size; c++) {
+            int q = child.seconds.values[c];
+            for (int e = 0; e < parent.firsts.size; e++) {
+                report(first, parent.firsts.values[e], second, q, parent.depth, passages);
+            }
+        }
+        parent.firsts.addAll(child.firsts);
+        parent.seconds.addAll(child.seconds);
+    }
+
+    /**
+     * Report a right maximal match if it is left maximal too
+     *
+     * @param first    {@link Integer[]} words of the first document
+     * @param p        {@link Integer} offset of the match in the first document
+     * @param second   {@link Integer[]} words of the second document
+     * @param q        {@link Integer} offset of the match in the second document
+     * @param length   {@link Integer} words in the match
+     * @param passages {@link List<Passage>} receives the match
+     */
+    private static void report(int[] first, int p, int[] second, int q, int length, List<Passage> passages) {
+        if (p == 0 || q == 0 || first[p - 1] != second[q - 1]) {
+            passages.add(new Passage(p, q, length));
+        }
+    }
+
+    /**
+     * Join two documents with a separator after each, as symbols 1 and 2 below every word symbol
+     *
+     * @param first  {@link Integer[]} words of the first document
+     * @param second {@link Integer[]} words of the second document
+     * @return {@link Integer[]} first, 1, second, 2 with every word id w stored as w + 3
+     */
+    private static int[] concatenate(int[] first, int[] second) {
+        int[] text = new int[first.length + second.length + 2];
+        for (int i = 0; i < first.length; i++) {
+            text[i] = first[i] + 3;
+        }
+        text[first.length] = 1;
+        for (int i = 0; i < second.length; i++) {
+            text[first.length + 1 + i] = second[i] + 3;
+        }
+        text[text.length - 1] = 2;
+        return text;
+    }
+
+    /**
+     * Suffix array by prefix doubling: suffixes are ordered by their first 2^k symbols as the pair of ranks of
+     * their two halves, with two counting sort passes per round
+     *
+     * @param text {@link Integer[]} symbols, at least one
+     * @return {@link Integer[]} start of every suffix in lexicographic order
+     */
+    static int[] suffixArray(int[] text) {
+        int n = text.length;
+        int[] suffixes = new int[n];
+        int[] rank = new int[n];
+        int[] next = new int[n];
+        int[] buffer = new int[n];
+
+        // initial ranks: the dense order of the distinct symbols
+        int[] symbols = Arrays.stream(text).distinct().sorted().toArray();
+        for (int i = 0; i < n; i++) {
+            rank[i] = Arrays.binarySearch(symbols, text[i]) + 1;
+        }
+        int[] count = new int[n + 2];
+        for (int length = 1; ; length <<= 1) {
+            // sort by the rank of the second half (0 past the end), then stably by the rank of the first half
+            countingSort(rank, length, n, count, buffer, identity(n, next));
+            countingSort(rank, 0, n, count, suffixes, buffer);
+
+            next[suffixes[0]] = 1;
+            for (int i = 1; i < n; i++) {
+                int a = suffixes[i - 1];
+                int b = suffixes[i];
+                boolean same = rank[a] == rank[b] && secondRank(rank, a, length) == secondRank(rank, b, length);
+                next[b] = next[a] + (same ? 0 : 1);
+            }
+            System.arraycopy(next, 0, rank, 0, n);
+            if (rank[suffixes[n - 1]] == n) {
+                return suffixes;
+            }
+        }
+    }
+
+    /**
+     * Stable counting sort of suffixes by the rank found at an offset from their start
+     *
+     * @param rank   {@link Integer[]} rank of every suffix, 1 to n
+     * @param offset {@link Integer} offset of the rank to sort by; past the end counts as rank 0
+     * @param n      {@link Integer} number of suffixes
+     * @param count  {@link Integer[]} scratch array of n + 2 counters
+     * @param into   {@link Integer[]} receives the sorted suffixes
+     * @param from   {@link Integer[]} suffixes to sort
+     */
+    private static void countingSort(int[] rank, int offset, int n, int[] count, int[] into, int[] from) {
+        Arrays.fill(count, 0);
+        for (int i = 0; i < n; i++) {
+            count[secondRank(rank, from[i], offset) + 1]++;
+        }
+        for (int r = 1; r < count.length; r++) {
+            count[r] += count[r - 1];
+        }
+        for (int i = 0; i < n; i++) {
+            into[count[secondRank(rank, from[i], offset)]++] = from[i];
+        }
+    }
+
+    /**
+     * @param rank   {@link Integer[]} rank of every suffix
+     * @param suffix {@link Integer} suffix start
+     * @param offset {@link Integer} offset from the start
+     * @return {@link Integer} rank of the suffix starting offset symbols later, 0 past the end
+     */
+    private static int secondRank(int[] rank, int suffix, int offset) {
+        return suffix + offset < rank.length ? rank[suffix + offset] : 0;
+    }
+
+    /**
+     * @param n     {@link Integer} length
+     * @param array {@link Integer[]} array of at least n entries to fill
+     * @return {@link Integer[]} the array holding 0 to n - 1
+     */
+    private static int[] identity(int n, int[] array) {
+        for (int i = 0; i < n; i++) {
+            array[i] = i;
+        }
+        return array;
+    }
+
+    /**
+     * Kasai's algorithm: the LCP of each suffix with its predecessor in the suffix array
+     *
+     * @param text     {@link Integer[]} symbols
+     * @param suffixes {@link Integer[]} suffix array of the text
+     * @return {@link Integer[]} lcp[i] = common prefix length of suffixes[i - 1] and suffixes[i], lcp[0] = 0
+     */
+    static int[] lcpArray(int[] text, int[] suffixes) {
+        int n = text.length;
+        int[] inverse = new int[n];
+        for (int i = 0; i < n; i++) {
+            inverse[suffixes[i]] = i;
+        }
+        int[] lcp = new int[n];
+        int common = 0;
+        for (int i = 0; i < n; i++) {
+            if (inverse[i] == 0) {
+                common = 0;
+                continue;
+            }
+            int previous = suffixes[inverse[i] - 1];
+            while (i + common < n && previous + common < n && text[i + common] == text[previous + common]) {
+                common++;
+            }
+            lcp[inverse[i]] = common;
+            // the next suffix is this one without its first symbol, so it keeps at least common - 1
+            if (common > 0) {
+                common--;
+            }
+        }
+        return lcp;
+    }
+
+    /**
+     * An LCP interval under construction: its LCP value and the suffixes of each document it holds so far
+     */
+    private static final class Interval {
+        private final int depth;
+        private final Positions firsts = new Positions();
+        private final Positions seconds = new Positions();
+
+        private Interval(int depth) {
+            this.depth = depth;
+        }
+    }
+
+    /**
+     * Growable list of word offsets
+     */
+    private static final class Positions {
+        private int[] values = new int[1];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private void addAll(Positions other) {
+            if (size + other.size > values.length) {
+                values = Arrays.copyOf(values, Math.max(size + other.size, size * 2));
+            }
+            System.arraycopy(other.values, 0, values, size, other.size);
+            size += other.size;
+        }
+    }
+}
@@ -0,0 +1,301 @@
+/*
+ * File: TfIdfCosine
+ * Created On: 18-10-2026
+ */
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Candidate generation by TF-IDF cosine similarity, computed for all pairs at once as the sparse product
+ * A * A^T of the document-term matrix A.
+ * <p>
+ * Each document becomes a row of A holding (1 + ln tf) * idf for every distinct word, with the smoothed
+ * idf = ln((1 + N) / (1 + df)) + 1, scaled to unit length so a dot product is the cosine. A is kept in
+ * compressed sparse row form (row offsets, column and value arrays) together with its transpose, the posting
+ * list of every word sorted by document.
+ * <p>
+ * Row i of the product only needs its entries j > i. The row's words are visited by descending weight and their
+ * posting lists are scattered into a dense accumulator (Gustavson's algorithm). The threshold is applied while
+ * accumulating: by Cauchy-Schwarz, a document that shares none of the words visited so far has a cosine of at
+ * most the norm of the row's remaining weights, so once that norm drops below the threshold no new entry is
+ * admitted and the rest of the posting lists, those of the common low weight words, only add to entries that
+ * already exist. The finished entries are kept if they reach the threshold less a rounding slack, so the product
+ * never holds more than the candidate entries of one row per worker. Rows are processed in blocks of
+ * {@link #BLOCK_ROWS} on a {@link ForkJoinPool}, each worker with its own accumulator.
+ */
+final class TfIdfCosine implements CandidateGenerator {
+
+    // Rows of the product computed by one task
+    private static final int BLOCK_ROWS = 256;
+    // Slack for the float weights and the summation order, applied to both the admission bound and the final
+    // test; loosening them only keeps more candidates, never loses a pair at the threshold
+    private static final double EPSILON = 1e-6;
+
+    // Cosine similarity a pair must reach
+    private final double threshold;
+    // Worker threads computing blocks of rows
+    private final int threads;
+
+    // Statistics of the last run
+    private long candidateCount;
+    private long pairCount;
+    private long nonZeros;
+    private long admitted;
+
+    /**
+     * @param threshold {@link Double} TF-IDF cosine similarity a pair must reach, in (0, 1)
+     * @param threads   {@link Integer} worker threads, at least 1
+     */
+    TfIdfCosine(double threshold, int threads) {
+        this.threshold = threshold;
+        this.threads = threads;
+    }
+
+    @Override
+    public long[] candidates(List<Document> documents) {
+        Matrix rows = Matrix.of(documents);
+        Matrix columns = rows.transpose();
+        nonZeros = rows.values.length;
+        admitted = 0;
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long[] candidates;
+        try {
+            ThreadLocal<Accumulator> accumulators = ThreadLocal.withInitial(() -> new Accumulator(rows.rows()));
+            candidates = pool.invoke(new ProductTask(rows, columns, accumulators, 0, rows.rows()));
+        } finally {
+            pool.shutdown();
+        }
+
+        candidateCount = candidates.length;
+        pairCount = (long) documents.size() * (documents.size() - 1) / 2;
+        return candidates;
+    }
+
+    /**
+     * Entries j > i of rows [from, to) of A * A^T that reach the threshold
+     *
+     * @param rows        {@link Matrix} A, rows unit length and sorted by descending weight within each row
+     * @param columns     {@link Matrix} A^T, every row sorted by document
+     * @param accumulator {@link Accumulator} scratch space of the calling thread
+     * @param from        {@link Integer} first row
+     * @param to          {@link Integer} end of the rows, exclusive
+     * @return {@link Long[]} packed qualifying pairs, sorted
+     */
+    private long[] productRows(Matrix rows, Matrix columns, Accumulator accumulator, int from, int to) {
+        PairList pairs = new PairList();
+        double[] sums = accumulator.sums;
+        int[] touched = accumulator.touched;
+        long entries = 0;
+        for (int i = from; i < to; i++) {
+            int count = 0;
+            double remaining = 1;
+            for (int e = rows.offsets[i]; e < rows.offsets[i + 1]; e++) {
+                double weight = rows.values[e];
+                int word = rows.columns[e];
+                boolean admit = remaining >= threshold - EPSILON;
+                // postings are sorted by document, skip to the first one after row i
+                int end = columns.offsets[word + 1];
+                int start = Arrays.binarySearch(columns.columns, columns.offsets[word], end, i + 1);
+                for (int p = start < 0 ? -start - 1 : start; p < end; p++) {
+                    int other = columns.columns[p];
+                    if (sums[other] != 0) {
+                        sums[other] += weight * columns.values[p];
+                    } else if (admit) {
+                        touched[count++] = other;
+                        sums[other] = weight * columns.values[p];
+                    }
+                }
+                remaining = Math.sqrt(Math.max(0, remaining * remaining - weight * weight));
+            }
+
+            Arrays.sort(touched, 0, count);
+            for (int t = 0; t < count; t++) {
+                int other = touched[t];
+                if (sums[other] >= threshold - EPSILON) {
+                    pairs.add(i, other);
+                }
+                sums[other] = 0;
+            }
+            entries += count;
+        }
+        synchronized (this) {
+            admitted += entries;
+        }
+        return pairs.toSortedArray();
+    }
+
+    @Override
+    public String report() {
+        return String.format("TF-IDF cosine kept %d of %d pair(s) at cosine %.2f (%d non-zero weight(s), %d "
+                             + "accumulated product entries)",
+                             candidateCount,
+                             pairCount,
+                             threshold,
+                             nonZeros,
+                             admitted);
+    }
+
+    /**
+     * Sparse matrix in compressed sparse row form
+     *
+     * @param offsets {@link Integer[]} start of every row in columns and values, plus the end of the last row
+     * @param columns {@link Integer[]} column of every non-zero entry
+     * @param values  {@link Float[]} value of every non-zero entry
+     * @param width   {@link Integer} number of columns
+     */
+    private record Matrix(int[] offsets, int[] columns, float[] values, int width) {
+
+        /**
+         * Build the unit length TF-IDF rows of the documents, each row sorted by descending weight
+         *
+         * @param documents {@link List<Document>} documents of the run
+         * @return {@link Matrix} the document-term matrix
+         */
+        static Matrix of(List<Document> documents) {
+            int n = documents.size();
+            int[][] words = new int[n][];
+            int[][] counts = new int[n][];
+            int width = 0;
+            for (int d = 0; d < n; d++) {
+                int[] sorted = documents.get(d).tokens().clone();
+                Arrays.sort(sorted);
+                int[] distinct = new int[sorted.length];
+                int[] tf = new int[sorted.length];
+                int size = 0;
+                for (int t = 0; t < sorted.length; t++) {
+                    if (t == 0 || sorted[t] != sorted[t - 1]) {
+                        distinct[size++] = sorted[t];
+                    }
+                    tf[size - 1]++;
+                }
+                words[d] = Arrays.copyOf(distinct, size);
+                counts[d] = Arrays.copyOf(tf, size);
+                if (size > 0) {
+                    width = Math.max(width, distinct[size - 1] + 1);
+                }
+            }
+
+            int[] frequency = new int[width];
+            int[] offsets = new int[n + 1];
+            for (int d = 0; d < n; d++) {
+                for (int word : words[d]) {
+                    frequency[word]++;
+                }
+                offsets[d + 1] = offsets[d] + words[d].length;
+            }
+            int[] columns = new int[offsets[n]];
+            float[] values = new float[offsets[n]];
+            for (int d = 0; d < n; d++) {
+                double[] weights = new double[words[d].length];
+                double norm = 0;
+                for (int w = 0; w < weights.length; w++) {
+                    double idf = Math.log((1.0 + n) / (1.0 + frequency[words[d][w]])) + 1;
+                    weights[w] = (1 + Math.log(counts[d][w])) * idf;
+                    norm += weights[w] * weights[w];
+                }
+                norm = Math.sqrt(norm);
+                // descending weight, so the row's remaining norm falls as fast as possible
+                Integer[] order = new Integer[weights.length];
+                for (int w = 0; w < order.length; w++) {
+                    order[w] = w;
+                }
+                Arrays.sort(order, (a, b) -> Double.compare(weights[b], weights[a]));
+                for (int w = 0; w < order.length; w++) {
+                    columns[offsets[d] + w] = words[d][order[w]];
+                    values[offsets[d] + w] = (float) (weights[order[w]] / norm);
+                }
+            }
+            return new Matrix(offsets, columns, values, width);
+        }
+
+        /**
+         * @return {@link Matrix} the transpose, every row sorted by column
+         */
+        Matrix transpose() {
+            int[] transposedOffsets = new int[width + 1];
+            for (int column : columns) {
+                transposedOffsets[column + 1]++;
+            }
+            for (int c = 0; c < width; c++) {
+                transposedOffsets[c + 1] += transposedOffsets[c];
+            }
+            int[] next = Arrays.copyOf(transposedOffsets, width);
+            int[] transposedColumns = new int[columns.length];
+            float[] transposedValues = new float[values.length];
+            // rows are visited in order, so every transposed row comes out sorted
+            for (int r = 0; r < rows(); r++) {
+                for (int e = offsets[r]; e < offsets[r + 1]; e++) {
+                    int slot = next[columns[e]]++;
+                    transposedColumns[slot] = r;
+                    transposedValues[slot] = values[e];
+                }
+            }
+            return new Matrix(transposedOffsets, transposedColumns, transposedValues, rows());
+        }
+
+        /**
+         * @return {@link Integer} number of rows
+         */
+        int rows() {
+            return offsets.length - 1;
+        }
+    }
+
+    /**
+     * Dense scratch row of one worker thread
+     */
+    private static final class Accumulator {
+        // partial dot product with every document, 0 where untouched
+        private final double[] sums;
+        // documents with a non-zero partial sum in the current row
+        private final int[] touched;
+
+        private Accumulator(int documents) {
+            sums = new double[documents];
+            touched = new int[documents];
+        }
+    }
+
+    /**
+     * Computes a range of rows of the product, splitting it into blocks
+     * <p>
+     * Serializable only through {@link RecursiveTask}; tasks never leave the pool, so they are never serialized
+     */
+    @SuppressWarnings("serial")
+    private final class ProductTask extends RecursiveTask<long[]> {
+
+        private final Matrix rows;
+        private final Matrix columns;
+        private final ThreadLocal<Accumulator> accumulators;
+        private final int from;
+        private final int to;
+
+        private ProductTask(Matrix rows, Matrix columns, ThreadLocal<Accumulator> accumulators, int from, int to) {
+            this.rows = rows;
+            this.columns = columns;
+            this.accumulators = accumulators;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from <= BLOCK_ROWS) {
+                return productRows(rows, columns, accumulators.get(), from, to);
+            }
+            int middle = (from + to) >>> 1;
+            ProductTask left = new ProductTask(rows, columns, accumulators, from, middle);
+            left.fork();
+            long[] right = new ProductTask(rows, columns, accumulators, middle, to).compute();
+            long[] leftPairs = left.join();
+            // the left rows come first, so the concatenation stays sorted
+            long[] joined = Arrays.copyOf(leftPairs, leftPairs.length + right.length);
+            System.arraycopy(right, 0, joined, leftPairs.length, right.length);
+            return joined;
+        }
+    }
+}
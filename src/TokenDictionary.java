@@ -0,0 +1,217 @@
+/*
+ * File: TokenDictionary
+ * Created On: 18-10-2026
+ */
+
+import java.util.Arrays;
+
+/**
+ * Maps every distinct word to a dense {@code int} id, so documents are split and hashed once and all word level
+ * comparisons afterwards are plain {@code int} comparisons. Words can be looked up straight from a {@code char[]}
+ * range, so the tokenizer only allocates a {@link String} the first time a word is seen. Interning is not
+ * synchronized: documents are interned while they are loaded, and comparisons only read ids back.
+ */
+final class TokenDictionary {
+
+    // word of every id, indexed by id
+    private String[] tokens = new String[64];
+    // String.hashCode() of every id, indexed by id
+    private int[] hashes = new int[64];
+    // stable 64 bit hash of every id, indexed by id
+    private long[] fingerprints = new long[64];
+    // open addressing table of 1 + id, 0 marks an empty slot
+    private int[] slots = new int[128];
+    // number of ids handed out
+    private int size;
+
+    /**
+     * Get the id of a word, assigning the next free id if the word is new
+     *
+     * @param token {@link String} word to intern
+     * @return {@link Integer} id of the word
+     */
+    int intern(String token) {
+        int hash = token.hashCode();
+        int mask = slots.length - 1;
+        for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+            int entry = slots[slot];
+            if (entry == 0) {
+                return add(token, hash, slot);
+            }
+            if (hashes[entry - 1] == hash && tokens[entry - 1].equals(token)) {
+                return entry - 1;
+            }
+        }
+    }
+
+    /**
+     * Get the id of the word stored in chars[start, end), creating the {@link String} only if the word is new
+     *
+     * @param chars {@link Character[]} buffer holding the word
+     * @param start {@link Integer} first char of the word
+     * @param end   {@link Integer} one past the last char of the word
+     * @return {@link Integer} id of the word
+     */
+    int intern(char[] chars, int start, int end) {
+        // same polynomial as String.hashCode(), so both lookups agree
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        int mask = slots.length - 1;
+        for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+            int entry = slots[slot];
+            if (entry == 0) {
+                return add(new String(chars, start, end - start), hash, slot);
+            }
+            if (hashes[entry - 1] == hash && matches(tokens[entry - 1], chars, start, end)) {
+                return entry - 1;
+            }
+        }
+    }
+
+    /**
+     * Intern every word of a document
+     *
+     * @param words {@link String[]} words in document order
+     * @return {@link Integer[]} ids in document order
+     */
+    int[] intern(String[] words) {
+        int[] result = new int[words.length];
+        for (int i = 0; i < words.length; i++) {
+            result[i] = intern(words[i]);
+        }
+        return result;
+    }
+
+    /**
+     * @param id {@link Integer} id returned by {@link #intern(String)}
+     * @return {@link String} the word with that id
+     */
+    String token(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("Unknown token id: " + id);
+        }
+        return tokens[id];
+    }
+
+    /**
+     * 64 bit hash of a word that depends only on its characters, not on the order words were interned in, so it
+     * can be compared across runs and stored on disk
+     *
+     * @param id {@link Integer} id returned by {@link #intern(String)}
+     * @return {@link Long} hash of the word
+     */
+    long tokenHash(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("Unknown token id: " + id);
+        }
+        return fingerprints[id];
+    }
+
+    /**
+     * @return {@link Integer} number of distinct words interned
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Store a new word in the given empty slot, growing the table when it gets half full
+     *
+     * @param token {@link String} new word
+     * @param hash  {@link Integer} hash of the word
+     * @param slot  {@link Integer} empty slot the probe ended at
+     * @return {@link Integer} id of the new word
+     */
+    private int add(String token, int hash, int slot) {
+        if (size == tokens.length) {
+            tokens = Arrays.copyOf(tokens, size * 2);
+            hashes = Arrays.copyOf(hashes, size * 2);
+            fingerprints = Arrays.copyOf(fingerprints, size * 2);
+        }
+        int id = size++;
+        tokens[id] = token;
+        hashes[id] = hash;
+        fingerprints[id] = fingerprint(token);
+        slots[slot] = id + 1;
+        if (size * 2 > slots.length) {
+            rehash();
+        }
+        return id;
+    }
+
+    /**
+     * Double the slot table and re-insert every id
+     */
+    private void rehash() {
+        int[] grown = new int[slots.length * 2];
+        int mask = grown.length - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = spread(hashes[id]) & mask;
+            while (grown[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            grown[slot] = id + 1;
+        }
+        slots = grown;
+    }
+
+    /**
+     * Compare a word with a char range without allocating
+     *
+     * @param token {@link String} stored word
+     * @param chars {@link Character[]} buffer holding the candidate
+     * @param start {@link Integer} first char of the candidate
+     * @param end   {@link Integer} one past the last char of the candidate
+     * @return {@link Boolean} true if both hold the same characters
+     */
+    private static boolean matches(String token, char[] chars, int start, int end) {
+        if (token.length() != end - start) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (token.charAt(i - start) != chars[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * FNV-1a over the chars of a word with a splitmix64 finalizer
+     *
+     * @param token {@link String} word
+     * @return {@link Long} stable 64 bit hash of the word
+     */
+    static long fingerprint(String token) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < token.length(); i++) {
+            h = (h ^ token.charAt(i)) * 0x100000001B3L;
+        }
+        return mix64(h);
+    }
+
+    /**
+     * splitmix64 finalizer, spreads every input bit over the whole result
+     *
+     * @param h {@link Long} value to mix
+     * @return {@link Long} mixed value
+     */
+    static long mix64(long h) {
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+
+    /**
+     * Mix the high bits of a hash into the low bits used to pick a slot
+     *
+     * @param hash {@link Integer} String.hashCode() style hash
+     * @return {@link Integer} mixed hash
+     */
+    private static int spread(int hash) {
+        int mixed = hash * 0x9E3779B9;
+        return mixed ^ (mixed >>> 16);
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * File: Tokenizer
+ * Created On: 18-10-2026
+ */
+
+import java.util.Arrays;
+
+/**
+ * Single pass tokenizer and normalizer. One scan over the input lowercases every character (ASCII by bit
+ * twiddling, everything else with the locale independent {@link Character#toLowerCase(char)}), cuts words at
+ * whitespace and punctuation, drops stop words and appends the surviving words, separated by single spaces, to a
+ * reusable output buffer. Stop words are recognised on the buffer itself by a {@link StopWordMatcher}, so a
+ * dropped word never becomes an object. No intermediate copy of the document is made. Word boundaries are kept
+ * next to the buffer, so the words can be interned without splitting again. Text can be fed in chunks
+ * ({@link #begin()}, {@link #append(char[], int, int)}, {@link #finish()}) so a reader can decode straight into it.
+ * <p>
+ * A word is a maximal run of letters, digits and surrogate pairs. The buffers are reused across calls, so one
+ * instance must not be shared between threads.
+ */
+final class Tokenizer {
+
+    // Chars copied at a time out of a CharSequence
+    private static final int COPY_CHUNK = 8192;
+
+    // Words to drop, tested in place on the output buffer
+    private final StopWordMatcher stopWords;
+
+    // Normalized output: surviving words separated by a single space
+    private char[] output = new char[1024];
+    // Number of used chars in output
+    private int length;
+    // Start / end offsets in output of each surviving word
+    private int[] tokenStarts = new int[128];
+    private int[] tokenEnds = new int[128];
+    // Number of surviving words
+    private int tokenCount;
+    // Offset in output of the word still being read, -1 between words
+    private int tokenStart = -1;
+    // Staging buffer for tokenize(CharSequence)
+    private final char[] copyBuffer = new char[COPY_CHUNK];
+
+    /**
+     * @param stopWords {@link StopWordMatcher} words to drop
+     */
+    Tokenizer(StopWordMatcher stopWords) {
+        this.stopWords = stopWords;
+    }
+
+    /**
+     * Tokenize a text, replacing the result of the previous call
+     *
+     * @param text {@link CharSequence} raw text
+     */
+    void tokenize(CharSequence text) {
+        begin();
+        int end = text.length();
+        for (int from = 0; from < end; from += COPY_CHUNK) {
+            int to = Math.min(end, from + COPY_CHUNK);
+            if (text instanceof String string) {
+                string.getChars(from, to, copyBuffer, 0);
+            } else {
+                for (int i = from; i < to; i++) {
+                    copyBuffer[i - from] = text.charAt(i);
+                }
+            }
+            append(copyBuffer, 0, to - from);
+        }
+        finish();
+    }
+
+    /**
+     * Start a new text that is fed in chunks with {@link #append(char[], int, int)}, replacing the previous result
+     */
+    void begin() {
+        length = 0;
+        tokenCount = 0;
+        tokenStart = -1;
+    }
+
+    /**
+     * Feed the next chunk of the current text. A word may be split across chunks
+     *
+     * @param chars {@link Character[]} buffer holding the chunk
+     * @param start {@link Integer} first char of the chunk
+     * @param end   {@link Integer} one past the last char of the chunk
+     */
+    void append(char[] chars, int start, int end) {
+        // every output char, separators included, is paid for by one input char
+        ensureOutput(length + (end - start) + 1);
+        char[] out = output;
+        int used = length;
+        int open = tokenStart;
+        for (int i = start; i < end; i++) {
+            char c = chars[i];
+            char lower;
+            if (c < 0x80) {
+                boolean word = (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || (c >= 'A' && c <= 'Z');
+                if (!word) {
+                    if (open >= 0) {
+                        length = used;
+                        open = endToken(open);
+                        used = length;
+                    }
+                    continue;
+                }
+                lower = c >= 'A' && c <= 'Z' ? (char) (c | 0x20) : c;
+            } else if (Character.isLetterOrDigit(c) || Character.isSurrogate(c)) {
+                lower = Character.toLowerCase(c);
+            } else {
+                if (open >= 0) {
+                    length = used;
+                    open = endToken(open);
+                    used = length;
+                }
+                continue;
+            }
+
+            if (open < 0) {
+                // separate from the previous surviving word
+                if (tokenCount > 0) {
+                    out[used++] = ' ';
+                }
+                open = used;
+            }
+            out[used++] = lower;
+        }
+        length = used;
+        tokenStart = open;
+    }
+
+    /**
+     * Close the current text after its last chunk
+     */
+    void finish() {
+        tokenStart = endToken(tokenStart);
+    }
+
+    /**
+     * Close the word being built: keep it, or roll the output back if it is a stop word
+     *
+     * @param start {@link Integer} offset of the word in output, -1 if no word is open
+     * @return {@link Integer} -1, the new "no word open" state
+     */
+    private int endToken(int start) {
+        if (start < 0) {
+            return -1;
+        }
+        if (stopWords.contains(output, start, length)) {
+            // drop the word and the separator written in front of it
+            length = tokenCount > 0 ? start - 1 : 0;
+            return -1;
+        }
+        if (tokenCount == tokenStarts.length) {
+            tokenStarts = Arrays.copyOf(tokenStarts, tokenCount * 2);
+            tokenEnds = Arrays.copyOf(tokenEnds, tokenCount * 2);
+        }
+        tokenStarts[tokenCount] = start;
+        tokenEnds[tokenCount] = length;
+        tokenCount++;
+        return -1;
+    }
+
+    /**
+     * @return {@link String} normalized text of the last call: surviving words separated by single spaces
+     */
+    String text() {
+        return new String(output, 0, length);
+    }
+
+    /**
+     * @return {@link Integer} number of words that survived the last call
+     */
+    int tokenCount() {
+        return tokenCount;
+    }
+
+    /**
+     * Intern the words of the last call straight from the output buffer
+     *
+     * @param dictionary {@link TokenDictionary} dictionary to intern into
+     * @return {@link Integer[]} word ids in document order
+     */
+    int[] intern(TokenDictionary dictionary) {
+        int[] ids = new int[tokenCount];
+        for (int t = 0; t < tokenCount; t++) {
+            ids[t] = dictionary.intern(output, tokenStarts[t], tokenEnds[t]);
+        }
+        return ids;
+    }
+
+    /**
+     * Grow the output buffer so it can hold the given number of chars
+     *
+     * @param capacity {@link Integer} chars needed
+     */
+    private void ensureOutput(int capacity) {
+        if (output.length < capacity) {
+            output = Arrays.copyOf(output, Math.max(capacity, output.length * 2));
+        }
+    }
+}
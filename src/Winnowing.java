@@ -0,0 +1,231 @@
+/*
+ * File: Winnowing
+ * Created On: 18-10-2026
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Document fingerprinting by winnowing (Schleimer, Wilkerson and Aiken, the scheme behind MOSS) and candidate
+ * generation on top of it.
+ * <p>
+ * Every k consecutive preprocessed words are hashed with a rolling hash over the stable word hashes of the
+ * {@link TokenDictionary}. Of every w consecutive k-gram hashes the minimum is selected (the rightmost one on
+ * ties), and each selected k-gram is recorded once with its word offset. This gives two guarantees: a shared
+ * passage of at least w + k - 1 words always produces a shared fingerprint, and a passage shorter than k words
+ * never does. All fingerprints go into a {@link FingerprintIndex}, and pairs sharing at least a minimum number of
+ * distinct fingerprints become candidates.
+ * <p>
+ * The same fingerprints locate the shared passages of a pair: every shared fingerprint is a seed, seeds are
+ * checked word by word and extended to maximal exact matches, and seeds inside an already found passage are
+ * skipped.
+ */
+final class Winnowing implements CandidateGenerator {
+
+    // Multiplier of the rolling k-gram hash
+    private static final long BASE = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Fingerprints selected from one document, in position order
+     *
+     * @param hashes    {@link Long[]} selected k-gram hashes
+     * @param positions {@link Integer[]} word offset of each selected k-gram
+     */
+    record Fingerprints(long[] hashes, int[] positions) {
+    }
+
+    // Stable word hashes, so fingerprints do not depend on interning order
+    private final TokenDictionary dictionary;
+    // Words per k-gram, the noise threshold
+    private final int k;
+    // k-grams per window
+    private final int window;
+    // Distinct fingerprints a pair must share to become a candidate
+    private final int minShared;
+    // BASE^(k - 1), to drop the oldest word from the rolling hash
+    private final long dropFactor;
+
+    // Statistics of the last run
+    private long candidateCount;
+    private long pairCount;
+    private int fingerprintCount;
+    private long entryCount;
+
+    /**
+     * @param dictionary {@link TokenDictionary} dictionary the document tokens come from
+     * @param k          {@link Integer} words per k-gram
+     * @param window     {@link Integer} k-grams per winnowing window
+     * @param minShared  {@link Integer} distinct fingerprints a pair must share to become a candidate
+     */
+    Winnowing(TokenDictionary dictionary, int k, int window, int minShared) {
+        this.dictionary = dictionary;
+        this.k = k;
+        this.window = window;
+        this.minShared = minShared;
+        long power = 1;
+        for (int i = 1; i < k; i++) {
+            power *= BASE;
+        }
+        this.dropFactor = power;
+    }
+
+    /**
+     * Winnow a document
+     *
+     * @param tokens {@link Integer[]} interned words of the document
+     * @return {@link Fingerprints} selected fingerprints, empty if the document has fewer than k words
+     */
+    Fingerprints fingerprint(int[] tokens) {
+        int grams = tokens.length - k + 1;
+        if (grams <= 0) {
+            return new Fingerprints(new long[0], new int[0]);
+        }
+        long[] gramHashes = new long[grams];
+        long rolling = 0;
+        for (int i = 0; i < k; i++) {
+            rolling = rolling * BASE + dictionary.tokenHash(tokens[i]);
+        }
+        gramHashes[0] = TokenDictionary.mix64(rolling);
+        for (int p = 1; p < grams; p++) {
+            rolling = (rolling - dictionary.tokenHash(tokens[p - 1]) * dropFactor) * BASE
+                      + dictionary.tokenHash(tokens[p + k - 1]);
+            gramHashes[p] = TokenDictionary.mix64(rolling);
+        }
+
+        // monotone deque of k-gram positions with strictly increasing hashes, its head is the window minimum
+        int[] deque = new int[grams];
+        int head = 0;
+        int tail = 0;
+        int span = Math.min(window, grams);
+        long[] hashes = new long[grams];
+        int[] positions = new int[grams];
+        int selected = 0;
+        int lastPosition = -1;
+        for (int p = 0; p < grams; p++) {
+            // equal hashes are dropped too, so the rightmost minimum wins
+            while (tail > head && Long.compareUnsigned(gramHashes[deque[tail - 1]], gramHashes[p]) >= 0) {
+                tail--;
+            }
+            deque[tail++] = p;
+            if (deque[head] <= p - span) {
+                head++;
+            }
+            if (p >= span - 1 && deque[head] != lastPosition) {
+                lastPosition = deque[head];
+                hashes[selected] = gramHashes[lastPosition];
+                positions[selected] = lastPosition;
+                selected++;
+            }
+        }
+        return new Fingerprints(Arrays.copyOf(hashes, selected), Arrays.copyOf(positions, selected));
+    }
+
+    /**
+     * @return {@link Integer} words per k-gram
+     */
+    int k() {
+        return k;
+    }
+
+    /**
+     * @return {@link Integer} k-grams per winnowing window
+     */
+    int window() {
+        return window;
+    }
+
+    @Override
+    public long[] candidates(List<Document> documents) {
+        FingerprintIndex index = new FingerprintIndex();
+        for (int d = 0; d < documents.size(); d++) {
+            index.add(d, fingerprint(documents.get(d).tokens()));
+        }
+        long[] candidates = index.sharedPairs(minShared);
+        int n = documents.size();
+        candidateCount = candidates.length;
+        pairCount = (long) n * (n - 1) / 2;
+        fingerprintCount = index.fingerprintCount();
+        entryCount = index.entryCount();
+        return candidates;
+    }
+
+    /**
+     * Maximal shared passages of two documents, seeded by their shared fingerprints
+     *
+     * @param first  {@link Integer[]} interned words of the first document
+     * @param second {@link Integer[]} interned words of the second document
+     * @return {@link List<Passage>} passages ordered by their offset in the first document
+     */
+    List<Passage> passages(int[] first, int[] second) {
+        FingerprintIndex index = new FingerprintIndex();
+        index.add(0, fingerprint(second));
+        Fingerprints seeds = fingerprint(first);
+
+        List<Passage> passages = new ArrayList<>();
+        // per diagonal (second offset - first offset), end in the first document of the last passage found on it
+        Map<Integer, Integer> coveredUntil = new HashMap<>();
+        for (int s = 0; s < seeds.hashes().length; s++) {
+            FingerprintIndex.Postings postings = index.postings(seeds.hashes()[s]);
+            if (postings == null) {
+                continue;
+            }
+            int p = seeds.positions()[s];
+            for (int e = 0; e < postings.size(); e++) {
+                int q = postings.position(e);
+                int diagonal = q - p;
+                if (coveredUntil.getOrDefault(diagonal, -1) > p || !sameWords(first, p, second, q, k)) {
+                    continue;
+                }
+                int start = p;
+                while (start > 0 && start + diagonal > 0 && first[start - 1] == second[start - 1 + diagonal]) {
+                    start--;
+                }
+                int end = p + k;
+                while (end < first.length && end + diagonal < second.length && first[end] == second[end + diagonal]) {
+                    end++;
+                }
+                passages.add(new Passage(start, start + diagonal, end - start));
+                coveredUntil.put(diagonal, end);
+            }
+        }
+        passages.sort(Comparator.comparingInt(Passage::firstStart).thenComparingInt(Passage::secondStart));
+        return passages;
+    }
+
+    /**
+     * Check a fingerprint match word by word, ruling out hash collisions
+     *
+     * @param first  {@link Integer[]} words of the first document
+     * @param p      {@link Integer} offset in the first document
+     * @param second {@link Integer[]} words of the second document
+     * @param q      {@link Integer} offset in the second document
+     * @param length {@link Integer} words to compare
+     * @return {@link Boolean} true if both ranges hold the same words
+     */
+    private static boolean sameWords(int[] first, int p, int[] second, int q, int length) {
+        for (int i = 0; i < length; i++) {
+            if (first[p + i] != second[q + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String report() {
+        return String.format("Winnowing kept %d of %d pair(s) (k = %d, window = %d, %d shared fingerprint(s); "
+                             + "%d distinct fingerprint(s), %d posting(s))",
+                             candidateCount,
+                             pairCount,
+                             k,
+                             window,
+                             minShared,
+                             fingerprintCount,
+                             entryCount);
+    }
+}